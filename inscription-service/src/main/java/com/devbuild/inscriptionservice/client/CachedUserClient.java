@@ -0,0 +1,109 @@
+package com.devbuild.inscriptionservice.client;
+
+import com.devbuild.inscriptionservice.config.UserCacheProperties;
+import com.devbuild.inscriptionservice.dto.user.UserDTO;
+import com.devbuild.inscriptionservice.dto.user.UserResponseWrapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache local devant UserClient.
+ * - taille et TTL bornés (UserCacheProperties) ;
+ * - cache négatif court pour les utilisateurs introuvables (404 ou réponse "success=false") ;
+ * - un seul appel Feign pour des demandes simultanées du même id (chargement partagé par Caffeine) ;
+ * - cache asynchrone : le chargement s'exécute sur le thread appelant, hors du verrou de la table,
+ *   et ne bloque donc jamais les recherches d'autres ids ;
+ * - les erreurs techniques ne sont jamais mises en cache : elles remontent pour Retry/CircuitBreaker.
+ * Statistiques exposées via Micrometer : /actuator/metrics/cache.gets?tag=cache:userClientCache
+ */
+@Component
+@Slf4j
+public class CachedUserClient {
+
+    public static final String CACHE_NAME = "userClientCache";
+
+    private final UserClient userClient;
+    private final AsyncCache<String, Optional<UserDTO>> cache;
+
+    public CachedUserClient(UserClient userClient, UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.userClient = userClient;
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, Optional<UserDTO>>() {
+                    @Override
+                    public long expireAfterCreate(String id, Optional<UserDTO> user, long currentTime) {
+                        return user.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Optional<UserDTO> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Optional<UserDTO> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return l'utilisateur, ou vide s'il n'existe pas dans user-service
+     */
+    public Optional<UserDTO> findUser(String id) {
+        CompletableFuture<Optional<UserDTO>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<UserDTO>> future = cache.get(id, (key, executor) -> pending);
+        if (future == pending) {
+            // Ce thread a inséré l'entrée : il charge, les demandes concurrentes du même id attendent ce résultat
+            try {
+                pending.complete(load(id));
+            } catch (RuntimeException e) {
+                // Une entrée en échec est retirée du cache par Caffeine
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    private Optional<UserDTO> load(String id) {
+        try {
+            UserResponseWrapper response = userClient.getUserById(id);
+            if (response != null && response.isSuccess() && response.getData() != null) {
+                return Optional.of(response.getData());
+            }
+            log.warn("Réponse invalide du user-service pour l'ID: {}", id);
+            return Optional.empty();
+        } catch (FeignException.NotFound e) {
+            log.info("Utilisateur {} introuvable dans user-service", id);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.devbuild.inscriptionservice.client;
+
+import com.devbuild.inscriptionservice.config.UserLookupProperties;
+import com.devbuild.inscriptionservice.dto.user.UserDTO;
+import com.devbuild.inscriptionservice.dto.user.UserIdentities;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Résout en parallèle les identités d'une inscription sur le pool borné "userLookupExecutor" :
+ * la latence d'une création est celle de la recherche la plus lente, pas leur somme.
+ * - doctorant : une erreur technique (ou un dépassement de délai) est propagée, pour que
+ *   Retry/CircuitBreaker s'appliquent comme auparavant ;
+ * - directeur et co-directeur : repli sur une valeur par défaut, la création continue.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserIdentityResolver {
+
+    private final CachedUserClient cachedUserClient;
+    private final ThreadPoolTaskExecutor userLookupExecutor;
+    private final UserLookupProperties properties;
+
+    /**
+     * Recherche asynchrone d'un utilisateur (cache local puis user-service).
+     */
+    public CompletableFuture<Optional<UserDTO>> lookup(String id) {
+        return CompletableFuture.supplyAsync(() -> cachedUserClient.findUser(id), userLookupExecutor);
+    }
+
+    /**
+     * Recherche asynchrone limitée à "inscription.user-lookup.timeout" (attente dans la file du pool comprise) :
+     * au-delà, le futur échoue avec une TimeoutException.
+     */
+    public CompletableFuture<Optional<UserDTO>> boundedLookup(String id) {
+        return lookup(id).orTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lance les recherches distinctes en parallèle, chacune limitée à "inscription.user-lookup.timeout".
+     */
+    public UserIdentities resolve(String doctorantId, String directeurId, String coDirecteurId) {
+        Map<String, CompletableFuture<Optional<UserDTO>>> lookups = new HashMap<>();
+        for (String id : new String[]{doctorantId, directeurId, coDirecteurId}) {
+            if (id != null) {
+                lookups.computeIfAbsent(id, this::boundedLookup);
+            }
+        }
+        return combine(doctorantId, directeurId, coDirecteurId, lookups);
+    }
+
+    /**
+     * Assemble les identités à partir de recherches déjà lancées (partagées entre les éléments d'un lot).
+     */
+    public UserIdentities combine(String doctorantId, String directeurId, String coDirecteurId,
+                                  Map<String, CompletableFuture<Optional<UserDTO>>> lookups) {
+        Optional<UserDTO> doctorant;
+        try {
+            doctorant = lookups.get(doctorantId).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("User-service inaccessible: " + describe(e), e.getCause());
+        }
+
+        return UserIdentities.builder()
+                .doctorantName(doctorant.map(this::displayName).orElse("Doctorant (non trouvé)"))
+                .doctorantEmail(doctorant.map(UserDTO::getEmail).orElse("email@inconnu.ma"))
+                .directeurName(nameOrFallback(directeurId, lookups, "Directeur "))
+                .coDirecteurName(coDirecteurId == null ? null : nameOrFallback(coDirecteurId, lookups, "Co-directeur "))
+                .build();
+    }
+
+    private String nameOrFallback(String id, Map<String, CompletableFuture<Optional<UserDTO>>> lookups, String prefix) {
+        try {
+            return lookups.get(id).join().map(this::displayName).orElse(prefix + id);
+        } catch (CompletionException e) {
+            log.warn("Identité {} non résolue ({}), valeur par défaut utilisée", id, describe(e));
+            return prefix + id;
+        }
+    }
+
+    private String displayName(UserDTO user) {
+        return user.getFirstName() + " " + user.getLastName();
+    }
+
+    private String describe(CompletionException e) {
+        return e.getCause() instanceof TimeoutException ? "délai dépassé" : String.valueOf(e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,12 @@
+package com.devbuild.inscriptionservice.client;
+
+/**
+ * user-service injoignable pendant la résolution des identités : seule panne pour laquelle
+ * la création d'inscription bascule en mode dégradé (fallback du circuit breaker).
+ */
+public class UserServiceUnavailableException extends RuntimeException {
+
+    public UserServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Contrôle d'admission des créations d'inscription (préfixe "inscription.admission").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // Créations traitées simultanément
+    private int maxConcurrent = 16;
+
+    // Requêtes en attente (tous utilisateurs confondus) au-delà desquelles on répond 503
+    private int maxQueue = 100;
+
+    // Requêtes en attente pour un même utilisateur au-delà desquelles on répond 429
+    private int maxQueuedPerUser = 1;
+
+    // Attente maximale dans la file avant un 503
+    private Duration maxWait = Duration.ofSeconds(3);
+
+    // Valeur de l'en-tête Retry-After des refus
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
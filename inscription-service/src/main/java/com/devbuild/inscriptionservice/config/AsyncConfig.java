@@ -0,0 +1,86 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig {
+
+    private final UserLookupProperties userLookupProperties;
+    private final ReinscriptionJobProperties reinscriptionJobProperties;
+    private final AttestationProperties attestationProperties;
+
+    /**
+     * Pool borné pour résoudre les utilisateurs en parallèle sans saturer user-service.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor userLookupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(userLookupProperties.getConcurrency());
+        executor.setMaxPoolSize(userLookupProperties.getConcurrency());
+        executor.setQueueCapacity(userLookupProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("user-lookup-");
+        // File pleine : l'appelant fait la recherche lui-même plutôt que d'échouer
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers du job de réinscription : une tranche par thread, les jobs suivants attendent en file.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reinscriptionJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reinscriptionJobProperties.getPartitions());
+        executor.setMaxPoolSize(reinscriptionJobProperties.getPartitions());
+        executor.setThreadNamePrefix("reinscription-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Rendus d'attestations PDF : pool et file bornés, les threads de requête n'attendent pas le rendu.
+     * File pleine : RejectedExecutionException, traduite en 503 par AttestationServiceImpl.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attestationRenderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(attestationProperties.getRenderThreads());
+        executor.setMaxPoolSize(attestationProperties.getRenderThreads());
+        executor.setQueueCapacity(attestationProperties.getRenderQueueCapacity());
+        executor.setThreadNamePrefix("attestation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Planificateur des tâches @Scheduled (heartbeats SSE, santé des réplicas, migration, purges...),
+     * configuré par spring.task.scheduling.*. Déclaré explicitement : le planificateur du relais
+     * ci-dessous désactiverait celui de Spring Boot.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Relais de l'outbox : thread dédié, l'attente des accusés Kafka (jusqu'à send-timeout)
+     * n'occupe pas le planificateur partagé.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        return scheduler;
+    }
+}
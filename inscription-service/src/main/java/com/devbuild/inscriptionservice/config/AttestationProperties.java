@@ -0,0 +1,31 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Attestations d'inscription en PDF (préfixe "inscription.attestation").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.attestation")
+public class AttestationProperties {
+
+    // Répertoire du cache : un fichier par (inscription, dateModification)
+    private String cacheDir = "./data/attestations";
+
+    // Rendus simultanés, et rendus en attente au-delà desquels les demandes sont refusées (503)
+    private int renderThreads = 2;
+    private int renderQueueCapacity = 100;
+
+    // Attente maximale d'un rendu par la requête HTTP
+    private Duration renderTimeout = Duration.ofSeconds(10);
+
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    // En-tête de l'attestation
+    private String etablissement = "Centre d'Études Doctorales";
+}
@@ -0,0 +1,25 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ramasse-miettes des contenus de documents (préfixe "inscription.documents.gc").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.documents.gc")
+public class DocumentCollectorProperties {
+
+    private boolean enabled = true;
+
+    // Un contenu écrit ou réutilisé depuis moins longtemps n'est jamais supprimé :
+    // couvre l'intervalle entre l'écriture du contenu et l'insertion de ses métadonnées
+    private Duration gracePeriod = Duration.ofHours(1);
+
+    // Empreintes vérifiées en base par requête
+    private int batchSize = 500;
+}
@@ -0,0 +1,42 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limites des uploads de documents (préfixe "inscription.documents.upload").
+ * Exemple : inscription.documents.upload.max-size-by-type[application/pdf]=50MB
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.documents.upload")
+public class DocumentUploadProperties {
+
+    // Taille du tampon de copie : borne la mémoire utilisée par upload concurrent
+    private DataSize bufferSize = DataSize.ofKilobytes(64);
+
+    // Taille maximale d'une requête d'upload complète (vérifiée sur Content-Length avant lecture)
+    private DataSize maxRequestSize = DataSize.ofMegabytes(60);
+
+    // Limite par défaut si le type de contenu n'a pas de limite spécifique
+    private DataSize defaultMaxSize = DataSize.ofMegabytes(10);
+
+    private Map<String, DataSize> maxSizeByType = new HashMap<>();
+
+    public long maxSizeFor(String contentType) {
+        if (contentType != null) {
+            String type = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+            DataSize limit = maxSizeByType.get(type);
+            if (limit != null) {
+                return limit.toBytes();
+            }
+        }
+        return defaultMaxSize.toBytes();
+    }
+}
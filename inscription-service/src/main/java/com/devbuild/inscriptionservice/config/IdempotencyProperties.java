@@ -0,0 +1,22 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Clés d'idempotence des créations (préfixe "inscription.idempotency").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.idempotency")
+public class IdempotencyProperties {
+
+    // Durée de conservation d'une clé et de son résultat
+    private Duration ttl = Duration.ofHours(24);
+
+    // Durée au-delà de laquelle une requête restée EN_COURS peut être reprise
+    private Duration lease = Duration.ofSeconds(60);
+}
@@ -0,0 +1,36 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Relais de l'outbox vers Kafka (préfixe "inscription.outbox").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.outbox")
+public class OutboxProperties {
+
+    private boolean relayEnabled = true;
+
+    private String topic = "inscription-events";
+
+    // Délai entre deux passages du relais (après la fin du précédent)
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    // Événements réservés et publiés par lot
+    private int batchSize = 200;
+
+    // Lots enchaînés au maximum par passage quand l'outbox est en retard
+    private int maxBatchesPerRun = 50;
+
+    // Attente maximale des accusés de réception Kafka pour un lot
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    // Bail d'un lot réservé : doit dépasser sendTimeout ; après un arrêt brutal du relais,
+    // le lot est repris par une autre instance à son expiration
+    private Duration leaseDuration = Duration.ofSeconds(60);
+}
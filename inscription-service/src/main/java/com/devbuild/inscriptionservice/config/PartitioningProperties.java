@@ -0,0 +1,24 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Partitionnement des inscriptions par année académique (préfixe "inscription.partitioning").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.partitioning")
+public class PartitioningProperties {
+
+    // Tables partitionnées en place (PostgreSQL, script db/partitioning/postgresql-partitioning.sql) :
+    // création des partitions au démarrage et clôture des années autorisées
+    private boolean enabled = false;
+
+    // Années lues par défaut par les listes : l'année en cours et les (activeYears - 1) précédentes
+    private int activeYears = 2;
+
+    // Mois de la rentrée : début de l'année académique en cours
+    private int yearStartMonth = 9;
+}
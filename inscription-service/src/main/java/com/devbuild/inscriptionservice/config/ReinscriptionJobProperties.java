@@ -0,0 +1,23 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job de réinscription annuelle (préfixe "inscription.reinscription-job").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.reinscription-job")
+public class ReinscriptionJobProperties {
+
+    // Tranches de doctorantId traitées en parallèle (un worker par tranche)
+    private int partitions = 4;
+
+    // Dossiers sources lus, réinscrits et validés par transaction
+    private int chunkSize = 500;
+
+    // Reprise des jobs EN_COURS au démarrage (arrêt ou crash pendant l'exécution)
+    private boolean resumeOnStartup = true;
+}
@@ -0,0 +1,48 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas en lecture (préfixe "inscription.replicas").
+ * Désactivé par défaut : toutes les transactions utilisent la base principale (spring.datasource.*).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> instances = new ArrayList<>();
+
+    // Retard de réplication au-delà duquel un réplica n'est plus utilisé
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Requête renvoyant le retard du réplica en secondes ; vide = simple test de connexion
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    // Fréquence de vérification de l'état et du retard des réplicas (ms)
+    private long healthCheckInterval = 5000;
+
+    // Après une écriture, les lectures de la même inscription / du même doctorant restent
+    // sur la base principale pendant cette durée (lecture de ses propres écritures)
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // Court : un réplica injoignable doit vite laisser la place à la base principale
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
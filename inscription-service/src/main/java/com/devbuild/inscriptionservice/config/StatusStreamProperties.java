@@ -0,0 +1,31 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Flux SSE des changements de statut (préfixe "inscription.status-stream").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.status-stream")
+public class StatusStreamProperties {
+
+    // Durée de vie d'une connexion SSE ; le navigateur se reconnecte ensuite avec Last-Event-ID
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    // Intervalle des commentaires de maintien de connexion (ms)
+    private long heartbeatInterval = 15000;
+
+    // Événements conservés en mémoire pour la reprise via Last-Event-ID
+    private int replayBufferSize = 10000;
+
+    // Abonnés simultanés au-delà desquels les nouveaux abonnements sont refusés (503)
+    private int maxSubscribers = 10000;
+
+    // Diffusion entre instances via le topic Kafka de l'outbox (groupe de consommateurs propre à l'instance)
+    private boolean broadcastEnabled = false;
+}
@@ -0,0 +1,24 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache local des utilisateurs récupérés depuis user-service (préfixe "inscription.user-cache").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.user-cache")
+public class UserCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    // Durée de vie d'un utilisateur trouvé
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // Durée de vie d'un "utilisateur introuvable" (cache négatif, volontairement court)
+    private Duration negativeTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,25 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Parallélisme des appels à user-service (préfixe "inscription.user-lookup").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.user-lookup")
+public class UserLookupProperties {
+
+    // Nombre maximal d'appels simultanés vers user-service
+    private int concurrency = 8;
+
+    // Demandes en attente au-delà desquelles l'appelant exécute lui-même la recherche
+    private int queueCapacity = 1000;
+
+    // Délai maximal de chaque recherche lors d'une création unitaire
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,22 @@
+package com.devbuild.inscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * File de traitement des dossiers en attente (préfixe "inscription.work-queue").
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inscription.work-queue")
+public class WorkQueueProperties {
+
+    // Durée d'un bail ; un bail expiré non renouvelé rend le dossier à la file
+    private Duration leaseDuration = Duration.ofMinutes(5);
+
+    // Nombre maximal de dossiers réservés par appel
+    private int maxClaim = 50;
+}
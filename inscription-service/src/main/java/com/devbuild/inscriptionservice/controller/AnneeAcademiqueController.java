@@ -0,0 +1,62 @@
+package com.devbuild.inscriptionservice.controller;
+
+import com.devbuild.inscriptionservice.dto.AnneeClotureResponse;
+import com.devbuild.inscriptionservice.dto.AnneesAcademiquesResponse;
+import com.devbuild.inscriptionservice.dto.InscriptionPage;
+import com.devbuild.inscriptionservice.dto.InscriptionPageResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.services.AnneeAcademiqueService;
+import com.devbuild.inscriptionservice.services.InscriptionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Années académiques (administration) : années actives, clôture d'une année et lecture de ses archives.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/inscriptions/annees")
+public class AnneeAcademiqueController {
+
+    private final AnneeAcademiqueService anneeAcademiqueService;
+    private final InscriptionService inscriptionService;
+
+    @GetMapping
+    public ResponseEntity<AnneesAcademiquesResponse> getAnnees() {
+        log.info("GET /inscriptions/annees");
+        return ResponseEntity.ok(anneeAcademiqueService.getAnnees());
+    }
+
+    // Déplace les dossiers et documents de l'année vers le schéma d'archive
+    @PostMapping("/{anneeAcademique}/cloture")
+    public ResponseEntity<AnneeClotureResponse> closeYear(@PathVariable AnneeAcademique anneeAcademique) {
+        log.info("POST /inscriptions/annees/{}/cloture", anneeAcademique);
+        return ResponseEntity.ok(anneeAcademiqueService.closeYear(anneeAcademique));
+    }
+
+    // Dossiers d'une année clôturée, par curseur comme GET /inscriptions
+    @GetMapping("/{anneeAcademique}/archives")
+    public ResponseEntity<InscriptionPageResponse> getArchives(
+            @PathVariable AnneeAcademique anneeAcademique,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("GET /inscriptions/annees/{}/archives (cursor={}, size={})", anneeAcademique, cursor, size);
+
+        InscriptionPage page = inscriptionService.getArchivedInscriptionsPage(anneeAcademique, cursor, size);
+        return ResponseEntity.ok(InscriptionPageResponse.builder()
+                .success(true)
+                .message("Inscriptions archivées " + anneeAcademique.getLabel())
+                .data(page.getItems())
+                .size(page.getItems().size())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .approximateTotal(page.getApproximateTotal())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
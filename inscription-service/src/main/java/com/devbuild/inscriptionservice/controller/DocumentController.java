@@ -1,41 +1,98 @@
 package com.devbuild.inscriptionservice.controller;
 
+import com.devbuild.inscriptionservice.config.DocumentUploadProperties;
+import com.devbuild.inscriptionservice.dto.DocumentContent;
 import com.devbuild.inscriptionservice.dto.DocumentInfoDTO;
-import com.devbuild.inscriptionservice.model.Document;
+import com.devbuild.inscriptionservice.dto.MessageResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.repository.DocumentBundleItem;
+import com.devbuild.inscriptionservice.services.DocumentBundleService;
+import com.devbuild.inscriptionservice.services.DocumentMigrationService;
 import com.devbuild.inscriptionservice.services.DocumentService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.impl.SizeException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 public class DocumentController {
 
+    // Attributs de requête reconnus par Tomcat pour l'envoi "sendfile" (zero-copy)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // En dessous de cette taille, une copie classique est plus rentable (même seuil que le DefaultServlet)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
     private final DocumentService documentService;
+    private final DocumentMigrationService documentMigrationService;
+    private final DocumentBundleService documentBundleService;
+    private final DocumentUploadProperties uploadProperties;
 
     /**
      * Uploade un document lié à une inscription.
      * C'est l'endpoint que le frontend appellera.
+     * Le corps multipart est lu en flux par l'analyseur de Tomcat (celui qu'il utilise pour
+     * getParts(), ici sans mise en tampon) : la partie "file" est copiée vers le stockage au fur et
+     * à mesure de sa réception, sans fichier temporaire.
      */
     @PostMapping("/inscriptions/{id}/documents")
     // TODO: Sécuriser cet endpoint (Propriétaire ou Admin)
-    public ResponseEntity<DocumentInfoDTO> uploadDocument(
-            @PathVariable String id,
-            @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<DocumentInfoDTO> uploadDocument(@PathVariable String id, HttpServletRequest request) {
+        log.info("POST /inscriptions/{}/documents", id);
+        if (request.getContentType() == null
+                || !request.getContentType().toLowerCase(Locale.ROOT).startsWith(FileUpload.MULTIPART)) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        log.info("POST /inscriptions/{}/documents - Upload de {}", id, file.getOriginalFilename());
+        FileUpload upload = new FileUpload();
+        // Rejet immédiat (avant lecture du corps) si Content-Length annonce une requête trop grosse,
+        // sinon pendant la lecture
+        upload.setSizeMax(uploadProperties.getMaxRequestSize().toBytes());
         try {
-            DocumentInfoDTO docInfo = documentService.store(file, id);
-            return ResponseEntity.status(HttpStatus.CREATED).body(docInfo);
+            FileItemIterator items = upload.getItemIterator(new ServletRequestContext(request));
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+                if (item.isFormField() || !"file".equals(item.getFieldName())) {
+                    continue;
+                }
+                log.info("Upload de {} ({})", item.getName(), item.getContentType());
+                try (InputStream content = item.openStream()) {
+                    DocumentInfoDTO docInfo = documentService.store(id, item.getName(), item.getContentType(), content);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(docInfo);
+                }
+            }
+            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
+            // Limite dépassée en cours de lecture : l'erreur de taille arrive enveloppée dans une IOException
+            Throwable sizeError = e instanceof SizeException ? e : e.getCause();
+            if (sizeError instanceof SizeException) {
+                log.warn("Upload refusé: {}", sizeError.getMessage());
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
             log.error("Erreur lors de l'upload: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -43,16 +100,85 @@ public class DocumentController {
 
     /**
      * Télécharge un document par son ID.
+     * Le contenu n'est jamais chargé en mémoire : Tomcat l'envoie par sendfile quand c'est possible,
+     * sinon il est recopié par blocs depuis le fichier.
+     *
+     * ETag fort = empreinte SHA-256 du contenu. Spring MVC gère ensuite, pour un corps de type Resource :
+     * - If-None-Match / If-Modified-Since -> 304 Not Modified ;
+     * - Range (une ou plusieurs plages) -> 206 Partial Content, en ne lisant que les octets demandés.
      */
     @GetMapping("/documents/{docId}")
-    public ResponseEntity<byte[]> getDocument(@PathVariable String docId) {
+    public ResponseEntity<Resource> getDocument(@PathVariable String docId, HttpServletRequest request) {
         log.info("GET /documents/{}", docId);
-        Document document = documentService.getDocument(docId);
+        DocumentContent document = documentService.getDocumentContent(docId);
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(document.getContentType()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.getFileName() + "\"")
-                .body(document.getData());
+                // Le navigateur garde sa copie mais revalide (304 si l'ETag n'a pas changé)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (document.getContentHash() != null) {
+            response.eTag("\"" + document.getContentHash() + "\"");
+        }
+        if (document.getDateCreation() != null) {
+            response.lastModified(document.getDateCreation().atZone(ZoneId.systemDefault()));
+        }
+
+        if (canUseSendfile(document, request)) {
+            // Pas de corps écrit ici : Tomcat transmet le fichier directement depuis le noyau
+            request.setAttribute(SENDFILE_FILENAME, document.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, document.getFileSize());
+            return response.contentLength(document.getFileSize()).build();
+        }
+        // Content-Length calculé par Spring (corps complet ou plage demandée)
+        return response.body(document.getResource());
+    }
+
+    // Sendfile uniquement pour un téléchargement complet et inconditionnel : les requêtes
+    // Range / conditionnelles passent par Spring MVC qui produit les réponses 206 / 304
+    private boolean canUseSendfile(DocumentContent document, HttpServletRequest request) {
+        return document.getFile() != null
+                && document.getFileSize() >= SENDFILE_MIN_SIZE
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null;
+    }
+
+    /**
+     * Archive ZIP de tous les documents d'une inscription, écrite au fil de la lecture du stockage.
+     * Taille inconnue à l'avance : réponse en chunked, sans Content-Length.
+     */
+    @GetMapping("/inscriptions/{id}/documents/bundle")
+    public ResponseEntity<StreamingResponseBody> getInscriptionBundle(@PathVariable String id) {
+        log.info("GET /inscriptions/{}/documents/bundle", id);
+        List<DocumentBundleItem> documents = documentBundleService.getInscriptionDocuments(id);
+        StreamingResponseBody body = out -> documentBundleService.writeBundle(documents, out);
+        return zipResponse("inscription-" + id + ".zip", body);
+    }
+
+    /**
+     * Archive ZIP des documents d'une cohorte (année, statut facultatif) : un dossier par inscription.
+     */
+    @GetMapping("/documents/bundle")
+    // TODO: Sécuriser cet endpoint (Admin / secrétariat de jury)
+    public ResponseEntity<StreamingResponseBody> getCohortBundle(
+            @RequestParam AnneeAcademique anneeAcademique,
+            @RequestParam(required = false) InscriptionStatus status) {
+        log.info("GET /documents/bundle (annee={}, status={})", anneeAcademique, status);
+        StreamingResponseBody body = out -> documentBundleService.writeCohortBundle(anneeAcademique, status, out);
+        String fileName = "documents-" + anneeAcademique.getLabel() + (status != null ? "-" + status : "") + ".zip";
+        return zipResponse(fileName, body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> zipResponse(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .cacheControl(CacheControl.noStore())
+                .body(body);
     }
 
     /**
@@ -65,4 +191,20 @@ public class DocumentController {
         documentService.deleteDocument(docId);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Migre un lot de documents encore stockés en BYTEA vers le stockage de fichiers.
+     */
+    @PostMapping("/documents/migration")
+    // TODO: Sécuriser cet endpoint (Admin seulement)
+    public ResponseEntity<MessageResponse> migrateDocuments(@RequestParam(defaultValue = "100") int batchSize) {
+        log.info("POST /documents/migration (batchSize={})", batchSize);
+        int migrated = documentMigrationService.migrateBatch(batchSize);
+        MessageResponse response = MessageResponse.builder()
+                .success(true)
+                .message(migrated + " document(s) migré(s)")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
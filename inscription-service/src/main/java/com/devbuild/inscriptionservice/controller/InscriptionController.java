@@ -1,40 +1,155 @@
 package com.devbuild.inscriptionservice.controller;
 
 import com.devbuild.inscriptionservice.dto.*;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.ExportFormat;
 import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.services.AttestationService;
+import com.devbuild.inscriptionservice.services.IdempotencyService;
+import com.devbuild.inscriptionservice.services.InscriptionAdmission;
+import com.devbuild.inscriptionservice.services.InscriptionExportService;
 import com.devbuild.inscriptionservice.services.InscriptionService;
+import com.devbuild.inscriptionservice.services.InscriptionStatisticsService;
+import com.devbuild.inscriptionservice.services.InscriptionStatusStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/inscriptions")
 public class InscriptionController {
-    private final InscriptionService inscriptionService;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
 
+    private final InscriptionService inscriptionService;
+    private final InscriptionExportService inscriptionExportService;
+    private final InscriptionStatisticsService inscriptionStatisticsService;
+    private final IdempotencyService idempotencyService;
+    private final InscriptionAdmission inscriptionAdmission;
+    private final InscriptionStatusStream inscriptionStatusStream;
+    private final AttestationService attestationService;
+
+    /**
+     * Liste paginée par curseur (keyset sur dateCreation, id), du plus récent au plus ancien.
+     * Le coût d'une page est indépendant de sa position : passer "nextCursor" pour la suivante.
+     */
     @GetMapping
-    public ResponseEntity<InscriptionListResponse> getAllInscriptions() {
-        log.info("GET /inscriptions");
+    public ResponseEntity<InscriptionPageResponse> getAllInscriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) InscriptionStatus status,
+            @RequestParam(required = false) InscriptionType type,
+            @RequestParam(required = false) AnneeAcademique anneeAcademique,
+            @RequestParam(required = false) String laboratoire,
+            @RequestParam(required = false) String directeurId,
+            @RequestParam(defaultValue = "false") boolean includeArchives) {
+        log.info("GET /inscriptions (cursor={}, size={}, includeArchives={})", cursor, size, includeArchives);
+
+        InscriptionFilter filter = InscriptionFilter.builder()
+                .status(status)
+                .type(type)
+                .anneeAcademique(anneeAcademique)
+                .laboratoire(laboratoire)
+                .directeurId(directeurId)
+                .includeArchives(includeArchives)
+                .build();
 
-        List<InscriptionDTO> inscriptions = inscriptionService.getAllInscriptions();
-        InscriptionListResponse response = InscriptionListResponse.builder()
+        InscriptionPage page = inscriptionService.getInscriptionsPage(filter, cursor, size);
+        InscriptionPageResponse response = InscriptionPageResponse.builder()
                 .success(true)
                 .message("Liste des inscriptions")
-                .data(inscriptions)
-                .total(inscriptions.size())
+                .data(page.getItems())
+                .size(page.getItems().size())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .approximateTotal(page.getApproximateTotal())
                 .timestamp(LocalDateTime.now())
                 .build();
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Export complet en streaming (NDJSON ou CSV).
+     * Les lignes sont écrites au fur et à mesure de la lecture du curseur JDBC :
+     * mémoire constante et premier octet envoyé avant la fin de la requête SQL.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInscriptions(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) AnneeAcademique anneeAcademique,
+            @RequestParam(required = false) InscriptionStatus status,
+            @RequestParam(required = false) InscriptionType type,
+            @RequestParam(required = false) String laboratoire,
+            @RequestParam(required = false) String directeurId,
+            @RequestParam(defaultValue = "false") boolean includeArchives) {
+        log.info("GET /inscriptions/export (format={}, annee={}, status={}, type={}, laboratoire={}, directeurId={}, "
+                + "includeArchives={})", format, anneeAcademique, status, type, laboratoire, directeurId, includeArchives);
+
+        InscriptionFilter filter = InscriptionFilter.builder()
+                .anneeAcademique(anneeAcademique)
+                .status(status)
+                .type(type)
+                .laboratoire(laboratoire)
+                .directeurId(directeurId)
+                .includeArchives(includeArchives)
+                .build();
+
+        StreamingResponseBody body = out -> inscriptionExportService.exportInscriptions(filter, format, out);
+
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inscriptions." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    /**
+     * Compteurs par statut × année × type × laboratoire, lus depuis la table pré-agrégée
+     * (coût proportionnel au nombre de groupes, pas au nombre de dossiers).
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<InscriptionStatisticsResponse> getStatistics(
+            @RequestParam(required = false) AnneeAcademique anneeAcademique,
+            @RequestParam(required = false) InscriptionType type,
+            @RequestParam(required = false) String laboratoire) {
+        log.info("GET /inscriptions/statistics (annee={}, type={}, laboratoire={})", anneeAcademique, type, laboratoire);
+        return ResponseEntity.ok(inscriptionStatisticsService.getStatistics(anneeAcademique, type, laboratoire));
+    }
+
+    @PostMapping("/statistics/reconcile")
+    // TODO: Sécuriser cet endpoint (Admin seulement)
+    public ResponseEntity<MessageResponse> reconcileStatistics() {
+        log.info("POST /inscriptions/statistics/reconcile");
+        int corrected = inscriptionStatisticsService.reconcile();
+        MessageResponse response = MessageResponse.builder()
+                .success(true)
+                .message(corrected + " groupe(s) statistique(s) corrigé(s)")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InscriptionResponse> getInscriptionById(@PathVariable String id) {
         log.info("GET /inscriptions/{}", id);
@@ -50,24 +165,38 @@ public class InscriptionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Soumise au contrôle d'admission (InscriptionAdmission) : 503/429 + Retry-After en cas de saturation.
+     * En-tête Idempotency-Key facultatif : une même clé renvoie l'inscription déjà créée,
+     * sans nouvel appel à user-service ni nouvelle insertion.
+     */
     @PostMapping
     public ResponseEntity<InscriptionResponse> createInscription(
-            @RequestBody CreateInscriptionRequest request) {
+            @RequestBody CreateInscriptionRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("POST /inscriptions");
 
-        InscriptionDTO inscription = inscriptionService.createInscription(request);
-        InscriptionResponse response = InscriptionResponse.builder()
-                .success(true)
-                .message("Inscription créée avec succès")
-                .data(inscription)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return inscriptionAdmission.call(request.getDoctorantId(), () ->
+                createIdempotent("POST /inscriptions", idempotencyKey, request, "Inscription créée avec succès",
+                        claim -> inscriptionService.createInscription(request, claim)));
     }
 
 
+    /**
+     * Création en masse : un résultat par élément (succès avec l'id créé, ou raison de l'échec).
+     * 201 si au moins une inscription a été créée, sinon 200 avec les raisons des échecs.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchInscriptionResponse> createInscriptionsBatch(
+            @RequestBody List<CreateInscriptionRequest> requests) {
+
+        log.info("POST /inscriptions/batch ({} éléments)", requests.size());
+
+        BatchInscriptionResponse response = inscriptionService.createInscriptionsBatch(requests);
+        return ResponseEntity.status(response.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<InscriptionResponse> updateInscription(
             @PathVariable String id,
@@ -137,6 +266,21 @@ public class InscriptionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Validation directeur en masse : les ids dans un statut incompatible sont listés dans "skipped".
+     */
+    @PutMapping("/validate/directeur")
+    public ResponseEntity<BulkValidationResponse> bulkValidateByDirecteur(@RequestBody BulkValidationRequest request) {
+        log.info("PUT /inscriptions/validate/directeur ({} ids)", request.getIds() == null ? 0 : request.getIds().size());
+        return ResponseEntity.ok(inscriptionService.bulkValidateByDirecteur(request));
+    }
+
+    @PutMapping("/validate/admin")
+    public ResponseEntity<BulkValidationResponse> bulkValidateByAdmin(@RequestBody BulkValidationRequest request) {
+        log.info("PUT /inscriptions/validate/admin ({} ids)", request.getIds() == null ? 0 : request.getIds().size());
+        return ResponseEntity.ok(inscriptionService.bulkValidateByAdmin(request));
+    }
+
     @GetMapping("/{id}/status")
     public ResponseEntity<InscriptionStatusDTO> getStatus(@PathVariable String id) {
         log.info("GET /inscriptions/{}/status", id);
@@ -145,11 +289,66 @@ public class InscriptionController {
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * Attestation d'inscription PDF (inscription VALIDEE). Réponse asynchrone : le thread de requête
+     * est libéré pendant un éventuel rendu. ETag = version du dossier (304 si inchangée).
+     */
+    @GetMapping("/{id}/attestation")
+    public CompletableFuture<ResponseEntity<Resource>> getAttestation(@PathVariable String id) {
+        log.info("GET /inscriptions/{}/attestation", id);
+        return attestationService.getAttestation(id).thenApply(attestation -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + attestation.getFileName() + "\"")
+                .eTag("\"" + attestation.getVersion() + "\"")
+                .lastModified(attestation.getDateModification().atZone(ZoneId.systemDefault()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentLength(attestation.getFileSize())
+                .body(attestation.getResource()));
+    }
+
+    /**
+     * Boîte de réception d'un directeur : dossiers dirigés ou co-dirigés, par curseur,
+     * avec le nombre de dossiers par statut sur la première page.
+     */
+    @GetMapping("/directeur/{directeurId}")
+    public ResponseEntity<DirecteurInboxResponse> getDirecteurInbox(
+            @PathVariable String directeurId,
+            @RequestParam(required = false) InscriptionStatus status,
+            @RequestParam(required = false) AnneeAcademique anneeAcademique,
+            @RequestParam(defaultValue = "false") boolean includeArchives,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("GET /inscriptions/directeur/{} (status={}, cursor={})", directeurId, status, cursor);
+        return ResponseEntity.ok(inscriptionService.getDirecteurInbox(directeurId, status, anneeAcademique, includeArchives, cursor, size));
+    }
+
+    /**
+     * Flux SSE des changements de statut (remplace le polling de /{id}/status).
+     * Événements "status" (InscriptionStatusDTO) + commentaires heartbeat ; reprise via Last-Event-ID.
+     */
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInscriptionStatus(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("GET /inscriptions/{}/status/stream", id);
+        return inscriptionStatusStream.subscribeInscription(id, lastEventId);
+    }
+
+    @GetMapping(value = "/doctorant/{doctorantId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDoctorantStatuses(
+            @PathVariable String doctorantId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("GET /inscriptions/doctorant/{}/status/stream", doctorantId);
+        return inscriptionStatusStream.subscribeDoctorant(doctorantId, lastEventId);
+    }
+
     @GetMapping("/doctorant/{doctorantId}")
-    public ResponseEntity<InscriptionListResponse> getByDoctorant(@PathVariable String doctorantId) {
-        log.info("GET /inscriptions/doctorant/{}", doctorantId);
+    public ResponseEntity<InscriptionListResponse> getByDoctorant(
+            @PathVariable String doctorantId,
+            @RequestParam(defaultValue = "false") boolean includeArchives) {
+        log.info("GET /inscriptions/doctorant/{} (includeArchives={})", doctorantId, includeArchives);
 
-        List<InscriptionDTO> inscriptions = inscriptionService.getInscriptionsByDoctorant(doctorantId);
+        List<InscriptionDTO> inscriptions = inscriptionService.getInscriptionsByDoctorant(doctorantId, includeArchives);
         InscriptionListResponse response = InscriptionListResponse.builder()
                 .success(true)
                 .message("Inscriptions du doctorant")
@@ -162,10 +361,12 @@ public class InscriptionController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<InscriptionListResponse> getByStatus(@PathVariable InscriptionStatus status) {
-        log.info("GET /inscriptions/status/{}", status);
+    public ResponseEntity<InscriptionListResponse> getByStatus(
+            @PathVariable InscriptionStatus status,
+            @RequestParam(defaultValue = "false") boolean includeArchives) {
+        log.info("GET /inscriptions/status/{} (includeArchives={})", status, includeArchives);
 
-        List<InscriptionDTO> inscriptions = inscriptionService.getInscriptionsByStatus(status);
+        List<InscriptionDTO> inscriptions = inscriptionService.getInscriptionsByStatus(status, includeArchives);
         InscriptionListResponse response = InscriptionListResponse.builder()
                 .success(true)
                 .message("Inscriptions avec statut: " + status)
@@ -179,19 +380,49 @@ public class InscriptionController {
 
     @PostMapping("/reinscriptions")
     public ResponseEntity<InscriptionResponse> createReinscription(
-            @RequestBody ReinscriptionRequest request) {
+            @RequestBody ReinscriptionRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("POST /reinscriptions");
 
-        InscriptionDTO inscription = inscriptionService.createReinscription(request);
+        return inscriptionAdmission.call(request.getDoctorantId(), () ->
+                createIdempotent("POST /inscriptions/reinscriptions", idempotencyKey, request,
+                        "Réinscription créée avec succès",
+                        claim -> inscriptionService.createReinscription(request, claim)));
+    }
+
+    private ResponseEntity<InscriptionResponse> createIdempotent(String scope, String idempotencyKey, Object request,
+                                                                 String message,
+                                                                 Function<IdempotencyClaim, InscriptionDTO> create) {
+        IdempotencyClaim claim = idempotencyKey == null ? null : idempotencyService.claim(scope, idempotencyKey, request);
+        boolean replayed = claim != null && !claim.isAcquired();
+
+        InscriptionDTO inscription;
+        if (replayed) {
+            inscription = inscriptionService.getInscriptionById(claim.getInscriptionId());
+        } else {
+            try {
+                inscription = create.apply(claim);
+            } catch (RuntimeException e) {
+                if (claim != null) {
+                    idempotencyService.release(claim);
+                }
+                throw e;
+            }
+        }
+
         InscriptionResponse response = InscriptionResponse.builder()
                 .success(true)
-                .message("Réinscription créée avec succès")
+                .message(message)
                 .data(inscription)
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.CREATED);
+        if (replayed) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return builder.body(response);
     }
 
     @GetMapping("/health")
@@ -206,4 +437,21 @@ public class InscriptionController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Modification concurrente détectée par @Version lors d'une écriture par dirty checking
+     * (mise à jour d'une inscription) : 409, le client recharge puis réessaie.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLock(OptimisticLockingFailureException e) {
+        log.warn("Conflit de version: {}", e.getMessage());
+
+        MessageResponse response = MessageResponse.builder()
+                .success(false)
+                .message("L'inscription a été modifiée entre-temps, rechargez-la avant de réessayer")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
 }
@@ -0,0 +1,41 @@
+package com.devbuild.inscriptionservice.controller;
+
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobRequest;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobResponse;
+import com.devbuild.inscriptionservice.services.ReinscriptionJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Réinscription annuelle en masse (administration) : lancement, reprise et suivi du job.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/inscriptions/reinscriptions/jobs")
+public class ReinscriptionJobController {
+
+    private final ReinscriptionJobService reinscriptionJobService;
+
+    // Le job s'exécute en arrière-plan : 202, avancement via GET /{jobId}
+    @PostMapping
+    public ResponseEntity<ReinscriptionJobResponse> start(@RequestBody ReinscriptionJobRequest request) {
+        log.info("POST /inscriptions/reinscriptions/jobs - {} -> {}", request.getSourceAnnee(), request.getTargetAnnee());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reinscriptionJobService.start(request));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<ReinscriptionJobResponse> resume(@PathVariable String jobId) {
+        log.info("POST /inscriptions/reinscriptions/jobs/{}/resume", jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reinscriptionJobService.resume(jobId));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReinscriptionJobResponse> getJob(@PathVariable String jobId) {
+        log.info("GET /inscriptions/reinscriptions/jobs/{}", jobId);
+        return ResponseEntity.ok(reinscriptionJobService.getJob(jobId));
+    }
+}
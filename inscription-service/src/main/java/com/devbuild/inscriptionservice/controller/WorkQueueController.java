@@ -0,0 +1,43 @@
+package com.devbuild.inscriptionservice.controller;
+
+import com.devbuild.inscriptionservice.dto.WorkQueueClaimRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseResponse;
+import com.devbuild.inscriptionservice.dto.WorkQueueResponse;
+import com.devbuild.inscriptionservice.services.WorkQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * File de traitement des dossiers en attente, pour les directeurs et l'administration.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/inscriptions/work-queue")
+public class WorkQueueController {
+
+    private final WorkQueueService workQueueService;
+
+    // Réserve les N plus anciens dossiers libres d'un statut, pour la durée du bail
+    @PostMapping("/claim")
+    public ResponseEntity<WorkQueueResponse> claim(@RequestBody WorkQueueClaimRequest request) {
+        log.info("POST /inscriptions/work-queue/claim - {} x {} pour {}", request.getStatus(), request.getCount(),
+                request.getReviewerId());
+        return ResponseEntity.ok(workQueueService.claim(request));
+    }
+
+    @PutMapping("/renew")
+    public ResponseEntity<WorkQueueLeaseResponse> renew(@RequestBody WorkQueueLeaseRequest request) {
+        log.info("PUT /inscriptions/work-queue/renew - {}", request.getReviewerId());
+        return ResponseEntity.ok(workQueueService.renew(request));
+    }
+
+    @PutMapping("/release")
+    public ResponseEntity<WorkQueueLeaseResponse> release(@RequestBody WorkQueueLeaseRequest request) {
+        log.info("PUT /inscriptions/work-queue/release - {}", request.getReviewerId());
+        return ResponseEntity.ok(workQueueService.release(request));
+    }
+}
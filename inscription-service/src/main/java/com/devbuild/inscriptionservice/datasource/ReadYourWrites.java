@@ -0,0 +1,64 @@
+package com.devbuild.inscriptionservice.datasource;
+
+import com.devbuild.inscriptionservice.config.ReplicaProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lecture de ses propres écritures malgré le retard des réplicas.
+ * Les écritures enregistrent des clés (inscription, doctorant) pendant readYourWritesWindow ;
+ * une lecture portant sur une clé récente est épinglée sur la base principale.
+ * L'épinglage doit intervenir dans la transaction en lecture seule, avant la première requête :
+ * la connexion n'est obtenue qu'à ce moment (LazyConnectionDataSourceProxy).
+ * Portée : l'instance courante.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(String key) {
+        if (enabled && key != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Épingle la transaction courante sur la base principale si l'une des clés a été écrite récemment.
+     */
+    public void pinIfRecent(String... keys) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (String key : keys) {
+            if (key != null && recentWrites.getIfPresent(key) != null) {
+                PINNED.set(Boolean.TRUE);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        PINNED.remove();
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.devbuild.inscriptionservice.datasource;
+
+import com.devbuild.inscriptionservice.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source des connexions des transactions en lecture seule : réplicas sains à tour de rôle,
+ * base principale en repli (aucun réplica sain, épinglage ReadYourWrites, ou échec de connexion).
+ * Un réplica est sain si sa dernière vérification a réussi avec un retard inférieur à maxLag.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final ReplicaProperties properties;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.properties = properties;
+        this.replicas = replicaPools.stream().map(ReplicaPool::new).toList();
+        this.primaryFallbacks = Counter.builder("inscription.datasource.replica.fallbacks")
+                .description("Transactions en lecture seule servies par la base principale faute de réplica")
+                .register(meterRegistry);
+        Gauge.builder("inscription.datasource.replica.healthy", this,
+                        ds -> ds.replicas.stream().filter(r -> r.healthy).count())
+                .description("Réplicas utilisables")
+                .register(meterRegistry);
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isPinned()) {
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${inscription.replicas.health-check-interval:5000}")
+    public void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                double lagSeconds = lagSeconds(connection);
+                if (lagSeconds * 1000 > properties.getMaxLag().toMillis()) {
+                    replica.markDown("retard de " + lagSeconds + " s");
+                } else if (!replica.healthy) {
+                    log.info("Réplica {} de nouveau utilisable", replica.pool.getPoolName());
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(properties.getLagQuery())) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class ReplicaPool {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+
+        private ReplicaPool(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("Réplica {} écarté, repli sur la base principale: {}", pool.getPoolName(), reason);
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnneeClotureeDTO {
+
+    private AnneeAcademique anneeAcademique;
+
+    // Lignes déplacées vers le schéma d'archive
+    private long inscriptions;
+    private long documents;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dateCloture;
+
+    // null tant que les partitions ne sont pas rattachées aux tables d'archive (relancer la clôture)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime archiveeLe;
+}
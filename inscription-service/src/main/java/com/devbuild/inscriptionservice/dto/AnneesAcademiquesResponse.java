@@ -0,0 +1,30 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnneesAcademiquesResponse {
+
+    private boolean success;
+    private String message;
+    private boolean partitioningEnabled;
+
+    private AnneeAcademique anneeCourante;
+    // Années lues par défaut par les listes, de la plus récente à la plus ancienne
+    private List<AnneeAcademique> anneesActives;
+    private List<AnneeClotureeDTO> anneesCloturees;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,26 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attestation PDF en cache, pour une version (dateModification) d'une inscription.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttestationContent {
+
+    private String inscriptionId;
+    private String fileName;
+    private String version; // sert d'ETag : change avec dateModification
+    private LocalDateTime dateModification;
+    private long fileSize;
+    private Resource resource;
+}
@@ -0,0 +1,31 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInscriptionResponse {
+
+    private boolean success;
+    private String message;
+    private int total;
+    private int created;
+    private int failed;
+    private List<BatchItemResult> results;
+
+    // Mesure du débit du lot
+    private long durationMs;
+    private double itemsPerSecond;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,20 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private int index;          // position de l'élément dans la requête
+    private boolean success;
+    private String id;          // identifiant concerné (créé ou traité)
+    private String error;       // raison de l'échec le cas échéant
+}
@@ -0,0 +1,22 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkValidationRequest {
+
+    private List<String> ids;
+    private boolean approved;
+    private String commentaire;
+    // Relecteur qui décide : un dossier réservé par un autre relecteur (bail actif de la file de traitement)
+    // est refusé tant que le bail court
+    private String reviewerId;
+}
@@ -0,0 +1,27 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkValidationResponse {
+
+    private boolean success;
+    private String message;
+    private InscriptionStatus targetStatus;
+    private List<String> updated;
+    private List<SkippedInscription> skipped;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,36 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirecteurInboxResponse {
+
+    private boolean success;
+    private String message;
+    private String directeurId;
+    private List<InscriptionDTO> data;
+    private int size;
+
+    // Pagination par curseur, comme GET /inscriptions
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Dossiers dirigés ou co-dirigés par statut (filtre d'année appliqué, pas celui de statut) ;
+    // calculé sur la première page uniquement, null ensuite
+    private Map<InscriptionStatus, Long> countsByStatus;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
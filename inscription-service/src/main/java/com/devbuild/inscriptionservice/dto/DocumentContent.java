@@ -0,0 +1,30 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Métadonnées d'un document et accès à son contenu, sans le charger en mémoire.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentContent {
+
+    private String id;
+    private String fileName;
+    private String contentType;
+    private long fileSize;
+    private String contentHash;
+    private LocalDateTime dateCreation;
+
+    private Resource resource;
+    private Path file; // null si le contenu n'est pas sur le disque local
+}
@@ -0,0 +1,23 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Issue de la réservation d'une clé d'idempotence :
+ * - acquired : la requête doit être exécutée (puis la clé complétée dans la même transaction) ;
+ * - sinon : la requête a déjà abouti, inscriptionId désigne le résultat à renvoyer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyClaim {
+
+    private String scope;
+    private String key;
+    private boolean acquired;
+    private String inscriptionId;
+}
@@ -53,4 +53,7 @@ public class InscriptionDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dateValidation;
 
+    // À renvoyer dans expectedVersion pour une validation conditionnelle
+    private Long version;
+
 }
\ No newline at end of file
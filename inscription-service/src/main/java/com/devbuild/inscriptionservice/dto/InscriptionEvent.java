@@ -0,0 +1,38 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionEventType;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement du workflow publié sur Kafka (clé : doctorantId).
+ * La livraison est "au moins une fois" : les consommateurs dédoublonnent sur eventId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionEvent {
+
+    private String eventId;
+    private InscriptionEventType eventType;
+    private String inscriptionId;
+    private String doctorantId;
+    private String directeurId;
+    private InscriptionType type;
+    private AnneeAcademique anneeAcademique;
+    private InscriptionStatus previousStatus; // null à la création
+    private InscriptionStatus status;
+    private String commentaire;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,31 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionFilter {
+
+    // Tous les critères sont optionnels (null = pas de filtre)
+    private InscriptionStatus status;
+    private InscriptionType type;
+    private AnneeAcademique anneeAcademique;
+    private String laboratoire;
+    private String directeurId;
+
+    // Sans année précisée, seules les années actives sont lues ; true = toutes les années des tables courantes
+    private boolean includeArchives;
+
+    public boolean isEmpty() {
+        return status == null && type == null && anneeAcademique == null
+                && laboratoire == null && directeurId == null;
+    }
+}
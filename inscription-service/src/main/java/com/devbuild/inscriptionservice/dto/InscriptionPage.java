@@ -0,0 +1,20 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionPage {
+
+    private List<InscriptionDTO> items;
+    private String nextCursor;      // null s'il n'y a plus de page
+    private boolean hasNext;
+    private Long approximateTotal;  // null si non calculé pour cette page
+}
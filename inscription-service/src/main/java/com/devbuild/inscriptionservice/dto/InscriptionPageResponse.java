@@ -0,0 +1,30 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionPageResponse {
+
+    private boolean success;
+    private String message;
+    private List<InscriptionDTO> data;
+    private int size;
+
+    // Pagination par curseur : renvoyer nextCursor tel quel pour obtenir la page suivante
+    private String nextCursor;
+    private boolean hasNext;
+    private Long approximateTotal;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
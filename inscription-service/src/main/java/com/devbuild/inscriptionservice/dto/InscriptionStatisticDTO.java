@@ -0,0 +1,22 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionStatisticDTO {
+
+    private InscriptionStatus status;
+    private AnneeAcademique anneeAcademique;
+    private InscriptionType type;
+    private String laboratoire;
+    private long count;
+}
@@ -0,0 +1,44 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.ReinscriptionJobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReinscriptionJobDTO {
+
+    private String id;
+    private AnneeAcademique sourceAnnee;
+    private AnneeAcademique targetAnnee;
+    private ReinscriptionJobStatus status;
+    private int partitions;
+    private int partitionsTerminees;
+
+    // Dossiers sources lus, réinscriptions créées, doctorants ignorés (déjà inscrits pour l'année cible)
+    private long processed;
+    private long created;
+    private long skipped;
+
+    // Débit depuis le dernier démarrage ou la dernière reprise
+    private double rowsPerSecond;
+
+    private String erreur;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dateDebut;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dateReprise;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime dateFin;
+}
@@ -0,0 +1,20 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReinscriptionJobRequest {
+
+    // Année dont les dossiers VALIDEE sont réinscrits
+    private AnneeAcademique sourceAnnee;
+
+    // Année des réinscriptions ; par défaut, l'année qui suit sourceAnnee
+    private AnneeAcademique targetAnnee;
+}
@@ -0,0 +1,18 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkippedInscription {
+
+    private String id;
+    private InscriptionStatus currentStatus; // null si l'inscription n'existe pas
+    private String reason;
+}
@@ -13,4 +13,9 @@ public class ValidateInscriptionRequest {
 
     private boolean approved;
     private String commentaire;
+    // Facultatif : version lue par le client ; 409 si l'inscription a été modifiée depuis
+    private Long expectedVersion;
+    // Relecteur qui décide : un dossier réservé par un autre relecteur (bail actif de la file de traitement)
+    // est refusé tant que le bail court
+    private String reviewerId;
 }
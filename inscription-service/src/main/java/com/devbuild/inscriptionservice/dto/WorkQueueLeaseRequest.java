@@ -0,0 +1,19 @@
+package com.devbuild.inscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkQueueLeaseRequest {
+
+    private String reviewerId;
+    // Facultatif : tous les dossiers réservés par le relecteur si absent
+    private List<String> ids;
+}
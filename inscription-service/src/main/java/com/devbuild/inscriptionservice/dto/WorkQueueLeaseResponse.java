@@ -0,0 +1,31 @@
+package com.devbuild.inscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkQueueLeaseResponse {
+
+    private boolean success;
+    private String message;
+    private String reviewerId;
+
+    // Nouvelle échéance (renouvellement) ; null pour une libération
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime leaseExpiresAt;
+
+    // Dossiers effectivement renouvelés ou libérés
+    private List<String> ids;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+}
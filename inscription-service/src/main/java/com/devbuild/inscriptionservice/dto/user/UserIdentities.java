@@ -0,0 +1,22 @@
+package com.devbuild.inscriptionservice.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identités résolues pour une inscription (doctorant, directeur, co-directeur),
+ * valeurs de repli comprises.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentities {
+
+    private String doctorantName;
+    private String doctorantEmail;
+    private String directeurName;
+    private String coDirecteurName;
+}
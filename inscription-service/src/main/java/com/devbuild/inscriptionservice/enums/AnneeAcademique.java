@@ -1,5 +1,8 @@
 package com.devbuild.inscriptionservice.enums;
 
+import java.time.LocalDate;
+import java.util.Locale;
+
 public enum AnneeAcademique {
     ANNEE_2023_2024("2023-2024"),
     ANNEE_2024_2025("2024-2025"),
@@ -14,4 +17,29 @@ public enum AnneeAcademique {
     public String getLabel() {
         return label;
     }
-}
\ No newline at end of file
+
+    // Année civile de la rentrée ("2025-2026" -> 2025)
+    public int getStartYear() {
+        return Integer.parseInt(label.substring(0, 4));
+    }
+
+    // Suffixe des partitions PostgreSQL de l'année (inscriptions_2025_2026, documents_2025_2026)
+    public String getPartitionSuffix() {
+        return name().substring("ANNEE_".length()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Année académique en cours à une date, la rentrée ayant lieu le mois startMonth.
+     * Hors des années déclarées, la plus proche (première ou dernière) est retournée.
+     */
+    public static AnneeAcademique at(LocalDate date, int startMonth) {
+        int startYear = date.getMonthValue() >= startMonth ? date.getYear() : date.getYear() - 1;
+        AnneeAcademique[] values = values();
+        for (AnneeAcademique annee : values) {
+            if (annee.getStartYear() == startYear) {
+                return annee;
+            }
+        }
+        return startYear < values[0].getStartYear() ? values[0] : values[values.length - 1];
+    }
+}
@@ -0,0 +1,6 @@
+package com.devbuild.inscriptionservice.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,6 @@
+package com.devbuild.inscriptionservice.enums;
+
+public enum IdempotencyStatus {
+    EN_COURS,
+    TERMINEE
+}
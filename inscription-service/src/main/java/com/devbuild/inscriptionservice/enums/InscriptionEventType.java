@@ -0,0 +1,8 @@
+package com.devbuild.inscriptionservice.enums;
+
+public enum InscriptionEventType {
+    INSCRIPTION_SOUMISE,
+    REINSCRIPTION_SOUMISE,
+    DECISION_DIRECTEUR,
+    DECISION_ADMIN
+}
@@ -1,5 +1,10 @@
 package com.devbuild.inscriptionservice.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum InscriptionStatus {
     BROUILLON,
     SOUMISE,
@@ -7,5 +12,36 @@ public enum InscriptionStatus {
     APPROUVEE_DIRECTEUR,
     EN_ATTENTE_ADMIN,
     VALIDEE,
-    REJETEE
+    REJETEE;
+
+    // Table des transitions autorisées : statut courant -> statuts cibles possibles
+    private static final Map<InscriptionStatus, Set<InscriptionStatus>> TRANSITIONS = new EnumMap<>(InscriptionStatus.class);
+
+    static {
+        TRANSITIONS.put(BROUILLON, EnumSet.of(SOUMISE));
+        TRANSITIONS.put(SOUMISE, EnumSet.of(EN_ATTENTE_DIRECTEUR, APPROUVEE_DIRECTEUR, REJETEE));
+        TRANSITIONS.put(EN_ATTENTE_DIRECTEUR, EnumSet.of(APPROUVEE_DIRECTEUR, REJETEE));
+        TRANSITIONS.put(APPROUVEE_DIRECTEUR, EnumSet.of(EN_ATTENTE_ADMIN, VALIDEE, REJETEE));
+        TRANSITIONS.put(EN_ATTENTE_ADMIN, EnumSet.of(VALIDEE, REJETEE));
+        // VALIDEE et REJETEE sont des états finaux
+        TRANSITIONS.put(VALIDEE, EnumSet.noneOf(InscriptionStatus.class));
+        TRANSITIONS.put(REJETEE, EnumSet.noneOf(InscriptionStatus.class));
+    }
+
+    public boolean canTransitionTo(InscriptionStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Statuts, parmi candidates, depuis lesquels target est atteignable.
+     */
+    public static Set<InscriptionStatus> sourcesOf(InscriptionStatus target, Set<InscriptionStatus> candidates) {
+        EnumSet<InscriptionStatus> sources = EnumSet.noneOf(InscriptionStatus.class);
+        for (InscriptionStatus status : candidates) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
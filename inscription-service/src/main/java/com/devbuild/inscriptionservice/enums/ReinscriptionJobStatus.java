@@ -0,0 +1,7 @@
+package com.devbuild.inscriptionservice.enums;
+
+public enum ReinscriptionJobStatus {
+    EN_COURS,
+    TERMINEE,
+    ECHOUEE
+}
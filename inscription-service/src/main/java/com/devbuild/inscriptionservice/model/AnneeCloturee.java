@@ -0,0 +1,39 @@
+package com.devbuild.inscriptionservice.model;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Année académique clôturée : ses partitions ont quitté les tables courantes pour le schéma "archive".
+ * La clôture se fait en deux temps (détachement, puis rattachement aux tables d'archive) ;
+ * archiveeLe reste null tant que le second n'a pas abouti.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "annees_cloturees")
+public class AnneeCloturee {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private AnneeAcademique anneeAcademique;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCloture;
+
+    @Column(nullable = false)
+    private long inscriptions;
+
+    @Column(nullable = false)
+    private long documents;
+
+    private LocalDateTime archiveeLe;
+}
@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -42,4 +43,13 @@ public class Campagne {
 
     @CreationTimestamp
     private LocalDateTime dateCreation;
+
+    @UpdateTimestamp
+    private LocalDateTime dateModification;
+
+    // Incrémentée à chaque modification, quelle que soit l'horloge de l'instance qui écrit :
+    // sert de "version" à l'index en mémoire des campagnes actives (ActiveCampaignIndex)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
 }
\ No newline at end of file
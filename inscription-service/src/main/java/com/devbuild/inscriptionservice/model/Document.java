@@ -1,16 +1,23 @@
 package com.devbuild.inscriptionservice.model;
 
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_inscription", columnList = "inscription_id"),
+        @Index(name = "idx_documents_content_hash", columnList = "content_hash")
+})
 @Data
 @Builder
 @AllArgsConstructor
@@ -25,7 +32,25 @@ public class Document {
     private String contentType;
     private long fileSize;
 
-    @Lob // Indique que c'est un "Large Object" (pour les données binaires)
+    // Le contenu d'un document ne change jamais : sa date de création sert de Last-Modified
+    @CreationTimestamp
+    private LocalDateTime dateCreation;
+
+    // Empreinte SHA-256 du contenu, clé dans le DocumentStorage (null = contenu encore en BYTEA)
+    @Column(length = 64)
+    private String contentHash;
+
+    // CRC-32 du contenu, calculé à l'upload : les archives ZIP écrivent les entrées STORED sans
+    // relire le fichier pour le calculer (null = document antérieur, CRC calculé à la volée)
+    private Long contentCrc32;
+
+    // Année de l'inscription, recopiée : clé de partitionnement de documents, comme pour inscriptions
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private AnneeAcademique anneeAcademique;
+
+    // Ancien stockage en base, conservé uniquement le temps de la migration vers le DocumentStorage
+    // Pas de @Lob : sous PostgreSQL, Hibernate lierait un OID (large object) à cette colonne BYTEA
     @Column(columnDefinition = "BYTEA") // Spécifique à PostgreSQL pour les octets
     @Basic(fetch = FetchType.LAZY) // Ne pas charger le fichier binaire sauf si on le demande
     @JsonIgnore // Ne jamais exposer les données binaires dans les DTOs
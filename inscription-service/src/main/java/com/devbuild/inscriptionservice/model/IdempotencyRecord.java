@@ -0,0 +1,48 @@
+package com.devbuild.inscriptionservice.model;
+
+import com.devbuild.inscriptionservice.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Résultat d'une requête portant un en-tête Idempotency-Key, conservé jusqu'à expiresAt.
+ * La clé primaire (scope, clé) garantit qu'une seule instance traite la requête.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @EmbeddedId
+    private IdempotencyRecordId id;
+
+    // Empreinte SHA-256 du corps : une clé réutilisée pour une autre requête est refusée
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    private String inscriptionId;
+
+    // Fin du bail de traitement : au-delà, une requête EN_COURS est considérée abandonnée
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCreation;
+}
@@ -0,0 +1,25 @@
+package com.devbuild.inscriptionservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Une clé n'est unique que pour une opération donnée ("scope").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class IdempotencyRecordId implements Serializable {
+
+    @Column(nullable = false, length = 50)
+    private String scope;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+}
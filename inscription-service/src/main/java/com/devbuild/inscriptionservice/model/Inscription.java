@@ -19,7 +19,21 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "inscriptions")
+@Table(name = "inscriptions", indexes = {
+        // Index "keyset" : (date_creation, id) sert de curseur pour la pagination
+        @Index(name = "idx_inscriptions_keyset", columnList = "date_creation, id"),
+        @Index(name = "idx_inscriptions_status_keyset", columnList = "status, date_creation, id"),
+        @Index(name = "idx_inscriptions_annee_keyset", columnList = "annee_academique, date_creation, id"),
+        @Index(name = "idx_inscriptions_laboratoire_keyset", columnList = "laboratoire, date_creation, id"),
+        @Index(name = "idx_inscriptions_directeur_keyset", columnList = "directeur_id, date_creation, id"),
+        // Boîte de réception des directeurs (filtre de statut) et des co-directeurs
+        @Index(name = "idx_inscriptions_directeur_status", columnList = "directeur_id, status, date_creation, id"),
+        @Index(name = "idx_inscriptions_codirecteur_status", columnList = "co_directeur_id, status, date_creation, id"),
+        @Index(name = "idx_inscriptions_doctorant", columnList = "doctorant_id"),
+        // Job de réinscription : dossiers d'une année et d'un statut parcourus par (doctorant_id, id)
+        @Index(name = "idx_inscriptions_annee_status_doctorant", columnList = "annee_academique, status, doctorant_id, id"),
+        @Index(name = "idx_inscriptions_lease_owner", columnList = "lease_owner")
+})
 public class Inscription {
 
     @Id
@@ -44,7 +58,9 @@ public class Inscription {
     @Column(nullable = false)
     private InscriptionStatus status;
 
+    // Clé de partitionnement sous PostgreSQL (tables partitionnées par année) : fixée à la création
     @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
     private AnneeAcademique anneeAcademique;
 
     // Informations académiques
@@ -69,6 +85,18 @@ public class Inscription {
 
     private LocalDateTime dateValidation;
 
+    // Bail de la file de traitement (WorkQueueService) : écrit uniquement par des UPDATE natifs,
+    // jamais par les sauvegardes de l'entité (qui écraseraient un bail pris entre-temps)
+    @Column(insertable = false, updatable = false)
+    private String leaseOwner;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime leaseExpiresAt;
+
+    // Verrouillage optimiste : incrémentée à chaque modification (y compris par les UPDATE conditionnels)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     @OneToMany(mappedBy = "inscription", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Document> documents;
 }
\ No newline at end of file
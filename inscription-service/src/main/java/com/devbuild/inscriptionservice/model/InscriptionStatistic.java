@@ -0,0 +1,26 @@
+package com.devbuild.inscriptionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compteur pré-agrégé du nombre d'inscriptions par groupe, tenu à jour à chaque transition
+ * et corrigé périodiquement par la réconciliation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inscription_statistics")
+public class InscriptionStatistic {
+
+    @EmbeddedId
+    private InscriptionStatisticId id;
+
+    @Column(nullable = false)
+    private long total;
+}
@@ -0,0 +1,65 @@
+package com.devbuild.inscriptionservice.model;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Clé d'un groupe statistique : statut × année × type × laboratoire.
+ * Les colonnes de la clé primaire ne peuvent pas être NULL : une année ou un laboratoire
+ * absent est stocké sous la forme d'une chaîne vide.
+ * Chaque groupe est réparti sur plusieurs lignes ("slot") dont la somme donne le total :
+ * les transactions concurrentes d'un même groupe ne se bloquent pas sur une seule ligne.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class InscriptionStatisticId implements Serializable {
+
+    public static final String NONE = "";
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InscriptionStatus status;
+
+    @Column(nullable = false)
+    private String anneeAcademique;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InscriptionType type;
+
+    @Column(nullable = false)
+    private String laboratoire;
+
+    @Column(nullable = false)
+    private int slot;
+
+    public InscriptionStatisticId(InscriptionStatus status, String anneeAcademique, InscriptionType type,
+                                  String laboratoire) {
+        this(status, anneeAcademique, type, laboratoire, 0);
+    }
+
+    public InscriptionStatisticId withSlot(int slot) {
+        return new InscriptionStatisticId(status, anneeAcademique, type, laboratoire, slot);
+    }
+
+    // Clé du groupe, indépendante du slot
+    public InscriptionStatisticId group() {
+        return slot == 0 ? this : withSlot(0);
+    }
+
+    public static InscriptionStatisticId of(Inscription inscription) {
+        return new InscriptionStatisticId(
+                inscription.getStatus(),
+                inscription.getAnneeAcademique() != null ? inscription.getAnneeAcademique().name() : NONE,
+                inscription.getType(),
+                inscription.getLaboratoire() != null ? inscription.getLaboratoire() : NONE);
+    }
+}
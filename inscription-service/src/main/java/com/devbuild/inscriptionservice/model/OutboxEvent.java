@@ -0,0 +1,58 @@
+package com.devbuild.inscriptionservice.model;
+
+import com.devbuild.inscriptionservice.enums.InscriptionEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement en attente de publication (transactional outbox).
+ * Écrit dans la même transaction que la transition, supprimé par le relais une fois publié.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inscription_outbox", indexes = {
+        // Ordre par clé : un événement n'est réservé que si aucun événement antérieur de sa clé est en cours
+        @Index(name = "idx_outbox_message_key", columnList = "message_key, id")
+})
+public class OutboxEvent {
+
+    // Séquence : ordre de publication, et identifiants pré-alloués pour les insertions groupées
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inscription_outbox_seq")
+    @SequenceGenerator(name = "inscription_outbox_seq", sequenceName = "inscription_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InscriptionEventType eventType;
+
+    @Column(nullable = false)
+    private String aggregateId; // id de l'inscription
+
+    @Column(nullable = false)
+    private String messageKey; // doctorantId : ordre conservé par doctorant dans une partition
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    private LocalDateTime dateCreation;
+
+    // Bail du relais pendant la publication (hors transaction) : écrit uniquement par des UPDATE natifs
+    @Column(insertable = false, updatable = false)
+    private String leaseOwner;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime leaseExpiresAt;
+}
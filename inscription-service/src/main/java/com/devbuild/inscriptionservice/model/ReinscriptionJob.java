@@ -0,0 +1,57 @@
+package com.devbuild.inscriptionservice.model;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.ReinscriptionJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Génération des réinscriptions d'une année académique à partir des dossiers VALIDEE de l'année précédente.
+ * Un seul job par couple d'années (contrainte unique) ; l'avancement est porté par ses partitions.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reinscription_jobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reinscription_jobs_annees", columnNames = {"source_annee", "target_annee"})
+})
+public class ReinscriptionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AnneeAcademique sourceAnnee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AnneeAcademique targetAnnee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReinscriptionJobStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime dateDebut;
+
+    // Dernier démarrage ou reprise, et lignes déjà traitées à ce moment : débit de l'exécution en cours
+    @Column(nullable = false)
+    private LocalDateTime dateReprise;
+
+    @Column(nullable = false)
+    private long traitesAvantReprise;
+
+    private LocalDateTime dateFin;
+
+    @Column(columnDefinition = "TEXT")
+    private String erreur;
+}
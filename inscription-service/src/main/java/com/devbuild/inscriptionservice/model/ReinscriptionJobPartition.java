@@ -0,0 +1,57 @@
+package com.devbuild.inscriptionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tranche [lowerBound, upperBound) de doctorantId d'un job de réinscription, et son point de reprise.
+ * Tous les dossiers d'un doctorant tombent dans la même tranche : deux workers ne peuvent pas
+ * réinscrire le même doctorant. Le point de reprise (lastDoctorantId, lastInscriptionId) est mis
+ * à jour dans la transaction qui insère le lot : après un arrêt, rien n'est perdu ni inséré deux fois.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reinscription_job_partitions", indexes = {
+        @Index(name = "idx_reinscription_job_partitions_job", columnList = "job_id, partition_index")
+})
+public class ReinscriptionJobPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String jobId;
+
+    @Column(nullable = false)
+    private int partitionIndex;
+
+    // Bornes de doctorantId (null : pas de borne)
+    private String lowerBound;
+    private String upperBound;
+
+    // Curseur (doctorantId, id) du dernier dossier source traité
+    private String lastDoctorantId;
+    private String lastInscriptionId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private boolean termine;
+
+    @UpdateTimestamp
+    private LocalDateTime dateModification;
+}
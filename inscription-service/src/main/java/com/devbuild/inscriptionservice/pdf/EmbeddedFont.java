@@ -0,0 +1,42 @@
+package com.devbuild.inscriptionservice.pdf;
+
+import org.openpdf.text.pdf.BaseFont;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Polices TrueType livrées avec le service (DejaVu Sans, licence dans fonts/LICENSE-DejaVu.txt),
+ * embarquées en sous-ensemble dans chaque PDF avec l'encodage Identity-H : tout caractère couvert
+ * par la police (latin étendu, grec, cyrillique, arabe...) est rendu tel quel, sans dépendre des
+ * polices installées sur le poste du lecteur.
+ */
+public enum EmbeddedFont {
+    REGULAR("DejaVuSans.ttf"), BOLD("DejaVuSans-Bold.ttf");
+
+    private final String fileName;
+    private final byte[] data;
+
+    EmbeddedFont(String fileName) {
+        this.fileName = fileName;
+        try (InputStream in = EmbeddedFont.class.getResourceAsStream("/fonts/" + fileName)) {
+            if (in == null) {
+                throw new IllegalStateException("Police introuvable dans le classpath: fonts/" + fileName);
+            }
+            this.data = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Nouvelle instance par document : BaseFont relit le fichier de police pour écrire le
+    // sous-ensemble et ne peut pas être partagée entre rendus simultanés
+    public BaseFont newBaseFont() {
+        try {
+            return BaseFont.createFont(fileName, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, data, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.model.AnneeCloturee;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnneeClotureeRepository extends JpaRepository<AnneeCloturee, AnneeAcademique> {
+
+    // Clôture interrompue entre le détachement et le rattachement aux tables d'archive
+    boolean existsByArchiveeLeIsNull();
+}
@@ -23,4 +23,15 @@ public interface CampagneRepository extends JpaRepository<Campagne, String> {
     Optional<Campagne> findActiveCampaign(@Param("type") InscriptionType type, @Param("now") LocalDateTime now);
 
     List<Campagne> findByAnneeAcademique(AnneeAcademique annee);
+
+    List<Campagne> findByActiveTrue();
+
+    /**
+     * "Version" de la table : nombre de campagnes et somme de leurs versions (@Version).
+     * Toute création augmente le nombre, toute modification la somme (les campagnes ne sont jamais
+     * supprimées) : contrairement à une date, la valeur ne dépend pas de l'horloge de l'instance qui écrit.
+     * Permet de savoir, en une requête triviale, si l'index en mémoire est encore à jour.
+     */
+    @Query("SELECT CONCAT(COUNT(c), '/', COALESCE(SUM(c.version), 0)) FROM Campagne c")
+    String findVersionStamp();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.devbuild.inscriptionservice.repository;
+
+/**
+ * Projection d'un document à ajouter à une archive ZIP : métadonnées et dossier d'origine,
+ * sans la colonne binaire "data".
+ */
+public interface DocumentBundleItem {
+    String getInscriptionId();
+    String getDoctorantId();
+    String getId();
+    String getFileName();
+    String getContentType();
+    long getFileSize();
+    String getContentHash();
+    Long getContentCrc32();
+}
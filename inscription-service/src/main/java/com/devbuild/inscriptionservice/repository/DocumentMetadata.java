@@ -0,0 +1,17 @@
+package com.devbuild.inscriptionservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection des métadonnées d'un document (sans la colonne binaire "data").
+ * Utilisée pour construire les listes de DTO sans charger les entités Document.
+ */
+public interface DocumentMetadata {
+    String getInscriptionId();
+    String getId();
+    String getFileName();
+    String getContentType();
+    long getFileSize();
+    String getContentHash();
+    LocalDateTime getDateCreation();
+}
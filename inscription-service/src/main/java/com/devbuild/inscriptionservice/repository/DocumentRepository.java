@@ -1,10 +1,19 @@
 package com.devbuild.inscriptionservice.repository;
 
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
 import com.devbuild.inscriptionservice.model.Document;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, String> {
@@ -12,4 +21,56 @@ public interface DocumentRepository extends JpaRepository<Document, String> {
     // Trouver tous les documents liés à une inscription (sans les données binaires)
     // Spring Data fera une projection si nous utilisons DocumentInfoDTO
     List<Document> findByInscriptionId(String inscriptionId);
-}
\ No newline at end of file
+
+    /**
+     * Métadonnées des documents d'un lot d'inscriptions, en une seule requête.
+     * Ne sélectionne jamais la colonne BYTEA.
+     */
+    @Query("SELECT d.inscription.id AS inscriptionId, d.id AS id, d.fileName AS fileName, " +
+            "d.contentType AS contentType, d.fileSize AS fileSize, d.contentHash AS contentHash, d.dateCreation AS dateCreation " +
+            "FROM Document d WHERE d.inscription.id IN :inscriptionIds")
+    List<DocumentMetadata> findMetadataByInscriptionIds(@Param("inscriptionIds") Collection<String> inscriptionIds);
+
+    @Query("SELECT d.inscription.id AS inscriptionId, d.id AS id, d.fileName AS fileName, " +
+            "d.contentType AS contentType, d.fileSize AS fileSize, d.contentHash AS contentHash, d.dateCreation AS dateCreation " +
+            "FROM Document d WHERE d.id = :id")
+    Optional<DocumentMetadata> findMetadataById(@Param("id") String id);
+
+    // Documents d'une inscription pour une archive ZIP
+    @Query("SELECT i.id AS inscriptionId, i.doctorantId AS doctorantId, d.id AS id, d.fileName AS fileName, " +
+            "d.contentType AS contentType, d.fileSize AS fileSize, d.contentHash AS contentHash, d.contentCrc32 AS contentCrc32 " +
+            "FROM Document d JOIN d.inscription i WHERE i.id = :inscriptionId ORDER BY d.dateCreation, d.id")
+    List<DocumentBundleItem> findBundleItemsByInscriptionId(@Param("inscriptionId") String inscriptionId);
+
+    /**
+     * Documents d'une cohorte (année, statuts), page par page : curseur (inscription, document).
+     * Première page avec des curseurs vides ("" précède tout identifiant).
+     */
+    @Query("SELECT i.id AS inscriptionId, i.doctorantId AS doctorantId, d.id AS id, d.fileName AS fileName, " +
+            "d.contentType AS contentType, d.fileSize AS fileSize, d.contentHash AS contentHash, d.contentCrc32 AS contentCrc32 " +
+            "FROM Document d JOIN d.inscription i " +
+            "WHERE i.anneeAcademique = :annee AND i.status IN :statuses " +
+            "AND (i.id > :afterInscriptionId OR (i.id = :afterInscriptionId AND d.id > :afterId)) " +
+            "ORDER BY i.id, d.id")
+    List<DocumentBundleItem> findBundleItemsPage(@Param("annee") AnneeAcademique annee,
+                                                 @Param("statuses") Collection<InscriptionStatus> statuses,
+                                                 @Param("afterInscriptionId") String afterInscriptionId,
+                                                 @Param("afterId") String afterId,
+                                                 Limit limit);
+
+    // Lecture explicite de la colonne BYTEA (documents pas encore migrés)
+    @Query("SELECT d.data FROM Document d WHERE d.id = :id")
+    byte[] findDataById(@Param("id") String id);
+
+    // Documents dont le contenu est encore en base, par lots
+    @Query("SELECT d.id FROM Document d WHERE d.contentHash IS NULL ORDER BY d.id")
+    List<String> findIdsToMigrate(Limit limit);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.contentHash = :hash, d.contentCrc32 = :crc32, d.data = NULL WHERE d.id = :id")
+    int markMigrated(@Param("id") String id, @Param("hash") String hash, @Param("crc32") long crc32);
+
+    // Empreintes encore référencées parmi un lot de contenus candidats au ramasse-miettes
+    @Query("SELECT DISTINCT d.contentHash FROM Document d WHERE d.contentHash IN :hashes")
+    Set<String> findReferencedHashes(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,50 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.model.IdempotencyRecord;
+import com.devbuild.inscriptionservice.model.IdempotencyRecordId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+
+    // 1 : clé réservée par cet appel ; 0 : déjà présente (autre requête, éventuellement sur une autre instance)
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, locked_until, " +
+            "expires_at, date_creation) VALUES (:scope, :key, :hash, 'EN_COURS', :lockedUntil, :expiresAt, :now) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("scope") String scope,
+                       @Param("key") String key,
+                       @Param("hash") String requestHash,
+                       @Param("lockedUntil") LocalDateTime lockedUntil,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("now") LocalDateTime now);
+
+    // Reprise d'une requête dont le traitement a été abandonné (bail expiré, rien n'a été validé)
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil WHERE r.id = :id " +
+            "AND r.status = com.devbuild.inscriptionservice.enums.IdempotencyStatus.EN_COURS AND r.lockedUntil < :now")
+    int takeOver(@Param("id") IdempotencyRecordId id,
+                 @Param("lockedUntil") LocalDateTime lockedUntil,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.devbuild.inscriptionservice.enums.IdempotencyStatus.TERMINEE, " +
+            "r.inscriptionId = :inscriptionId WHERE r.id = :id " +
+            "AND r.status = com.devbuild.inscriptionservice.enums.IdempotencyStatus.EN_COURS")
+    int complete(@Param("id") IdempotencyRecordId id, @Param("inscriptionId") String inscriptionId);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id " +
+            "AND r.status = com.devbuild.inscriptionservice.enums.IdempotencyStatus.EN_COURS")
+    int release(@Param("id") IdempotencyRecordId id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
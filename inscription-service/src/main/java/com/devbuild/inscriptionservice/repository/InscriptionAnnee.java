@@ -0,0 +1,10 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+
+/**
+ * Année académique d'une inscription (clé de partitionnement recopiée sur ses documents).
+ */
+public interface InscriptionAnnee {
+    AnneeAcademique getAnneeAcademique();
+}
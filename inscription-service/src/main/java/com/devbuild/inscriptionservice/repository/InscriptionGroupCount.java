@@ -0,0 +1,16 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+
+/**
+ * Comptage exact d'un groupe statistique, calculé depuis la table des inscriptions.
+ */
+public interface InscriptionGroupCount {
+    InscriptionStatus getStatus();
+    AnneeAcademique getAnneeAcademique();
+    InscriptionType getType();
+    String getLaboratoire();
+    long getTotal();
+}
@@ -1,17 +1,194 @@
 package com.devbuild.inscriptionservice.repository;
 
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
 import com.devbuild.inscriptionservice.enums.InscriptionStatus;
 import com.devbuild.inscriptionservice.model.Inscription;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface InscriptionRepository extends JpaRepository<Inscription, String> {
+public interface InscriptionRepository extends JpaRepository<Inscription, String>, JpaSpecificationExecutor<Inscription>,
+        InscriptionTransitionRepository {
 
     // Spring Data JPA créera automatiquement les requêtes pour ces méthodes
     List<Inscription> findByDoctorantId(String doctorantId);
 
     List<Inscription> findByStatus(InscriptionStatus status);
-}
\ No newline at end of file
+
+    // Variantes limitées aux années lues par défaut : PostgreSQL n'ouvre que leurs partitions
+    List<Inscription> findByDoctorantIdAndAnneeAcademiqueIn(String doctorantId, Collection<AnneeAcademique> annees);
+
+    List<Inscription> findByStatusAndAnneeAcademiqueIn(InscriptionStatus status, Collection<AnneeAcademique> annees);
+
+    Optional<InscriptionAnnee> findAnneeAcademiqueById(String id);
+
+    /**
+     * Estimation du nombre de lignes tenue à jour par PostgreSQL (ANALYZE / autovacuum).
+     * Ne parcourt pas la table : coût constant, contrairement à un COUNT(*).
+     * Table partitionnée : somme des estimations de ses partitions (le parent n'en a pas).
+     * Renvoie -1 si aucune n'a jamais été analysée.
+     */
+    @Query(value = "SELECT CAST(CASE WHEN MAX(c.reltuples) < 0 THEN -1 ELSE SUM(GREATEST(c.reltuples, 0)) END AS BIGINT) " +
+            "FROM pg_class c WHERE (c.oid = to_regclass('inscriptions') AND c.relkind = 'r') " +
+            "OR c.oid IN (SELECT h.inhrelid FROM pg_inherits h WHERE h.inhparent = to_regclass('inscriptions'))",
+            nativeQuery = true)
+    Long estimateRowCount();
+
+    /**
+     * Même estimation, limitée à certaines partitions de inscriptions (années actives).
+     * Renvoie -1 si aucune n'a jamais été analysée ou si la table n'est pas partitionnée.
+     */
+    @Query(value = "SELECT CAST(CASE WHEN COUNT(*) = 0 OR MAX(c.reltuples) < 0 THEN -1 " +
+            "ELSE SUM(GREATEST(c.reltuples, 0)) END AS BIGINT) " +
+            "FROM pg_class c WHERE c.relname IN (:partitions) " +
+            "AND c.oid IN (SELECT h.inhrelid FROM pg_inherits h WHERE h.inhparent = to_regclass('inscriptions'))",
+            nativeQuery = true)
+    Long estimateRowCountInPartitions(@Param("partitions") Collection<String> partitions);
+
+    /**
+     * Page d'une année clôturée, lue dans le schéma "archive" (même ordre et même curseur que les listes).
+     * Les colonnes sont celles des tables courantes au moment de la clôture.
+     */
+    @Query(value = "SELECT * FROM archive.inscriptions WHERE annee_academique = :annee " +
+            "AND (date_creation < :dateCreation OR (date_creation = :dateCreation AND id < :id)) " +
+            "ORDER BY date_creation DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Inscription> findArchivedPage(@Param("annee") String annee,
+                                       @Param("dateCreation") LocalDateTime dateCreation,
+                                       @Param("id") String id,
+                                       @Param("limit") int limit);
+
+    // --- Validations en masse : une seule instruction UPDATE conditionnelle par statut cible ---
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inscription i SET i.status = :target, i.commentaireDirecteur = :commentaire, " +
+            "i.dateModification = :now, i.version = i.version + 1, i.leaseOwner = NULL, i.leaseExpiresAt = NULL " +
+            "WHERE i.id IN :ids AND i.status IN :allowed")
+    int bulkTransitionByDirecteur(@Param("ids") Collection<String> ids,
+                                  @Param("allowed") Collection<InscriptionStatus> allowed,
+                                  @Param("target") InscriptionStatus target,
+                                  @Param("commentaire") String commentaire,
+                                  @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inscription i SET i.status = :target, i.commentaireAdmin = :commentaire, " +
+            "i.dateModification = :now, i.version = i.version + 1, i.leaseOwner = NULL, i.leaseExpiresAt = NULL, " +
+            "i.dateValidation = CASE WHEN :target = com.devbuild.inscriptionservice.enums.InscriptionStatus.VALIDEE " +
+            "THEN :now ELSE i.dateValidation END " +
+            "WHERE i.id IN :ids AND i.status IN :allowed")
+    int bulkTransitionByAdmin(@Param("ids") Collection<String> ids,
+                              @Param("allowed") Collection<InscriptionStatus> allowed,
+                              @Param("target") InscriptionStatus target,
+                              @Param("commentaire") String commentaire,
+                              @Param("now") LocalDateTime now);
+
+    // --- Transitions unitaires : InscriptionTransitionRepository (une instruction par décision) ---
+
+    // --- File de traitement : baux sur les dossiers en attente ---
+
+    /**
+     * Réserve les plus anciens dossiers du statut sans bail actif. Les lignes verrouillées par un
+     * autre relecteur sont sautées (SKIP LOCKED) ; le bail étant une colonne de la ligne verrouillée,
+     * PostgreSQL réévalue la condition sur la dernière version et ne la distribue jamais deux fois.
+     */
+    @Query(value = "SELECT * FROM inscriptions WHERE status = :status " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+            "ORDER BY date_creation, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Inscription> lockClaimable(@Param("status") String status,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE inscriptions SET lease_owner = :owner, lease_expires_at = :expiresAt WHERE id IN (:ids)",
+            nativeQuery = true)
+    int grantLeases(@Param("ids") Collection<String> ids,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query(value = "SELECT id FROM inscriptions WHERE lease_owner = :owner AND lease_expires_at >= :now",
+            nativeQuery = true)
+    List<String> findLeasedIds(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE inscriptions SET lease_expires_at = :expiresAt " +
+            "WHERE id IN (:ids) AND lease_owner = :owner AND lease_expires_at >= :now", nativeQuery = true)
+    int renewLeases(@Param("ids") Collection<String> ids,
+                    @Param("owner") String owner,
+                    @Param("now") LocalDateTime now,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE inscriptions SET lease_owner = NULL, lease_expires_at = NULL " +
+            "WHERE id IN (:ids) AND lease_owner = :owner", nativeQuery = true)
+    int releaseLeases(@Param("ids") Collection<String> ids, @Param("owner") String owner);
+
+    // Lignes éligibles, verrouillées jusqu'à la fin de la transaction : l'UPDATE qui suit
+    // modifie exactement ces lignes, dont on connaît le groupe statistique d'origine.
+    // Les dossiers réservés par un autre relecteur (bail actif) sont exclus.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id AS id, i.status AS status, i.doctorantId AS doctorantId, i.directeurId AS directeurId, " +
+            "i.anneeAcademique AS anneeAcademique, i.type AS type, i.laboratoire AS laboratoire " +
+            "FROM Inscription i WHERE i.id IN :ids AND i.status IN :allowed " +
+            "AND (i.leaseOwner IS NULL OR i.leaseExpiresAt < :now OR i.leaseOwner = :reviewerId)")
+    List<InscriptionStatusView> lockTransitionCandidates(@Param("ids") Collection<String> ids,
+                                                         @Param("allowed") Collection<InscriptionStatus> allowed,
+                                                         @Param("reviewerId") String reviewerId,
+                                                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.id AS id, i.status AS status, i.doctorantId AS doctorantId, i.directeurId AS directeurId, " +
+            "i.anneeAcademique AS anneeAcademique, i.type AS type, i.laboratoire AS laboratoire, " +
+            "i.leaseOwner AS leaseOwner, i.leaseExpiresAt AS leaseExpiresAt " +
+            "FROM Inscription i WHERE i.id IN :ids")
+    List<InscriptionStatusView> findStatusByIdIn(@Param("ids") Collection<String> ids);
+
+    // Comptages exacts par groupe statistique (réconciliation de inscription_statistics)
+    @Query("SELECT i.status AS status, i.anneeAcademique AS anneeAcademique, i.type AS type, " +
+            "i.laboratoire AS laboratoire, COUNT(i) AS total " +
+            "FROM Inscription i GROUP BY i.status, i.anneeAcademique, i.type, i.laboratoire")
+    List<InscriptionGroupCount> countByStatisticGroup();
+
+    // Comptages par statut des dossiers dirigés ou co-dirigés (index directeur / co-directeur)
+    @Query("SELECT i.status AS status, COUNT(i) AS total FROM Inscription i " +
+            "WHERE i.directeurId = :directeurId OR i.coDirecteurId = :directeurId GROUP BY i.status")
+    List<InscriptionStatusCount> countByStatusForDirecteur(@Param("directeurId") String directeurId);
+
+    @Query("SELECT i.status AS status, COUNT(i) AS total FROM Inscription i " +
+            "WHERE (i.directeurId = :directeurId OR i.coDirecteurId = :directeurId) " +
+            "AND i.anneeAcademique = :annee GROUP BY i.status")
+    List<InscriptionStatusCount> countByStatusForDirecteurAndAnnee(@Param("directeurId") String directeurId,
+                                                                   @Param("annee") AnneeAcademique annee);
+
+    @Query("SELECT i.status AS status, COUNT(i) AS total FROM Inscription i " +
+            "WHERE (i.directeurId = :directeurId OR i.coDirecteurId = :directeurId) " +
+            "AND i.anneeAcademique IN :annees GROUP BY i.status")
+    List<InscriptionStatusCount> countByStatusForDirecteurAndAnneeIn(@Param("directeurId") String directeurId,
+                                                                     @Param("annees") Collection<AnneeAcademique> annees);
+
+    // --- Job de réinscription ---
+
+    long countByStatusAndAnneeAcademique(InscriptionStatus status, AnneeAcademique anneeAcademique);
+
+    // doctorantId à une position donnée (bornes des tranches du job), parcours de l'index (annee, status, doctorant_id)
+    @Query("SELECT i.doctorantId FROM Inscription i WHERE i.status = :status AND i.anneeAcademique = :annee " +
+            "ORDER BY i.doctorantId")
+    List<String> findDoctorantIdsByStatusAndAnnee(@Param("status") InscriptionStatus status,
+                                                  @Param("annee") AnneeAcademique annee,
+                                                  Pageable pageable);
+
+    // Doctorants ayant déjà un dossier pour l'année (réinscription manuelle ou lot déjà traité)
+    @Query("SELECT DISTINCT i.doctorantId FROM Inscription i WHERE i.anneeAcademique = :annee " +
+            "AND i.doctorantId IN :doctorantIds")
+    List<String> findDoctorantIdsInAnnee(@Param("annee") AnneeAcademique annee,
+                                         @Param("doctorantIds") Collection<String> doctorantIds);
+}
@@ -0,0 +1,112 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.dto.InscriptionFilter;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Critères dynamiques pour les listes d'inscriptions.
+ * Seuls les filtres renseignés sont ajoutés à la requête, pour que PostgreSQL
+ * puisse choisir l'index correspondant (pas de "(:param IS NULL OR ...)").
+ */
+public final class InscriptionSpecifications {
+
+    // Ordre du curseur : du plus récent au plus ancien, l'id départage les égalités
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("dateCreation"), Sort.Order.desc("id"));
+
+    // Ordre de parcours du job de réinscription : par doctorant, l'id départage les égalités
+    public static final Sort DOCTORANT_KEYSET_SORT = Sort.by(Sort.Order.asc("doctorantId"), Sort.Order.asc("id"));
+
+    private InscriptionSpecifications() {
+    }
+
+    public static Specification<Inscription> matching(InscriptionFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter != null) {
+                if (filter.getStatus() != null) {
+                    predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+                }
+                if (filter.getType() != null) {
+                    predicates.add(cb.equal(root.get("type"), filter.getType()));
+                }
+                if (filter.getAnneeAcademique() != null) {
+                    predicates.add(cb.equal(root.get("anneeAcademique"), filter.getAnneeAcademique()));
+                }
+                if (filter.getLaboratoire() != null) {
+                    predicates.add(cb.equal(root.get("laboratoire"), filter.getLaboratoire()));
+                }
+                if (filter.getDirecteurId() != null) {
+                    predicates.add(cb.equal(root.get("directeurId"), filter.getDirecteurId()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Années lues par défaut : condition sur la clé de partitionnement (élagage des partitions)
+    public static Specification<Inscription> inAnnees(Collection<AnneeAcademique> annees) {
+        return (root, query, cb) -> root.get("anneeAcademique").in(annees);
+    }
+
+    public static Specification<Inscription> directedBy(String directeurId) {
+        return (root, query, cb) -> cb.equal(root.get("directeurId"), directeurId);
+    }
+
+    // Co-direction uniquement : les dossiers dont il est aussi directeur sont déjà dans directedBy
+    public static Specification<Inscription> coDirectedBy(String directeurId) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("coDirecteurId"), directeurId),
+                cb.notEqual(root.get("directeurId"), directeurId));
+    }
+
+    /**
+     * Condition "après le curseur" pour un tri (dateCreation DESC, id DESC) :
+     * dateCreation < d OR (dateCreation = d AND id < id).
+     */
+    public static Specification<Inscription> after(LocalDateTime dateCreation, String id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("dateCreation"), dateCreation),
+                cb.and(
+                        cb.equal(root.get("dateCreation"), dateCreation),
+                        cb.lessThan(root.get("id"), id)));
+    }
+
+    // Dossiers d'une année et d'un statut dont le doctorantId est dans [lowerBound, upperBound) ; bornes null ignorées
+    public static Specification<Inscription> inDoctorantRange(AnneeAcademique annee, InscriptionStatus status,
+                                                              String lowerBound, String upperBound) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("anneeAcademique"), annee));
+            predicates.add(cb.equal(root.get("status"), status));
+            if (lowerBound != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("doctorantId"), lowerBound));
+            }
+            if (upperBound != null) {
+                predicates.add(cb.lessThan(root.get("doctorantId"), upperBound));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Condition "après le curseur" pour un tri (doctorantId ASC, id ASC) :
+     * doctorantId > d OR (doctorantId = d AND id > id).
+     */
+    public static Specification<Inscription> afterDoctorant(String doctorantId, String id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("doctorantId"), doctorantId),
+                cb.and(
+                        cb.equal(root.get("doctorantId"), doctorantId),
+                        cb.greaterThan(root.get("id"), id)));
+    }
+}
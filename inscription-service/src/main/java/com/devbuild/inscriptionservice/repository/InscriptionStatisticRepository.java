@@ -0,0 +1,53 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.InscriptionStatistic;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InscriptionStatisticRepository extends JpaRepository<InscriptionStatistic, InscriptionStatisticId> {
+
+    @Modifying
+    @Query("UPDATE InscriptionStatistic s SET s.total = s.total + :delta WHERE s.id = :id")
+    int increment(@Param("id") InscriptionStatisticId id, @Param("delta") long delta);
+
+    // Première occurrence d'un groupe ; 0 si une autre transaction vient de le créer
+    @Modifying
+    @Query(value = "INSERT INTO inscription_statistics (status, annee_academique, type, laboratoire, slot, total) " +
+            "VALUES (:status, :annee, :type, :laboratoire, :slot, :total) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("status") String status,
+                       @Param("annee") String anneeAcademique,
+                       @Param("type") String type,
+                       @Param("laboratoire") String laboratoire,
+                       @Param("slot") int slot,
+                       @Param("total") long total);
+
+    // Crée le slot demandé pour chaque groupe qui ne l'a pas encore (compteurs antérieurs, nombre de slots augmenté)
+    @Modifying
+    @Query(value = "INSERT INTO inscription_statistics (status, annee_academique, type, laboratoire, slot, total) " +
+            "SELECT DISTINCT status, annee_academique, type, laboratoire, :slot, 0 FROM inscription_statistics " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingSlot(@Param("slot") int slot);
+
+    @Query("SELECT s FROM InscriptionStatistic s WHERE " +
+            "(:annee IS NULL OR s.id.anneeAcademique = :annee) " +
+            "AND (:type IS NULL OR s.id.type = :type) " +
+            "AND (:laboratoire IS NULL OR s.id.laboratoire = :laboratoire)")
+    List<InscriptionStatistic> findGroups(@Param("annee") String anneeAcademique,
+                                          @Param("type") InscriptionType type,
+                                          @Param("laboratoire") String laboratoire);
+
+    // Réconciliation : verrouille les compteurs pour que les transitions en cours attendent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InscriptionStatistic s")
+    List<InscriptionStatistic> lockAll();
+}
@@ -0,0 +1,11 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+
+/**
+ * Nombre d'inscriptions par statut (onglets de la boîte de réception d'un directeur).
+ */
+public interface InscriptionStatusCount {
+    InscriptionStatus getStatus();
+    long getTotal();
+}
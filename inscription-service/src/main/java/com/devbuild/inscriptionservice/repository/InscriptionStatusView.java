@@ -0,0 +1,25 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection minimale pour les traitements par lots : identifiant, statut,
+ * acteurs (événements) et champs du groupe statistique.
+ */
+public interface InscriptionStatusView {
+    String getId();
+    InscriptionStatus getStatus();
+    String getDoctorantId();
+    String getDirecteurId();
+    AnneeAcademique getAnneeAcademique();
+    InscriptionType getType();
+    String getLaboratoire();
+
+    // Bail de la file de traitement : sélectionné par findStatusByIdIn uniquement
+    String getLeaseOwner();
+    LocalDateTime getLeaseExpiresAt();
+}
@@ -0,0 +1,34 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Transitions unitaires écrites en une seule instruction : compare-and-set sur le statut, la version
+ * (si fournie) et le bail, qui renvoie la ligne telle qu'elle était avant la modification.
+ * Vide = aucune ligne modifiée (inscription absente, changée entre-temps ou réservée par un autre relecteur).
+ * La décision libère le bail : le dossier est aussitôt réservable dans son nouveau statut.
+ */
+public interface InscriptionTransitionRepository {
+
+    Optional<Inscription> transitionByDirecteur(String id,
+                                                Collection<InscriptionStatus> expectedStatuses,
+                                                Long expectedVersion,
+                                                String reviewerId,
+                                                InscriptionStatus target,
+                                                String commentaire,
+                                                LocalDateTime now);
+
+    // dateValidation est positionnée dans la même instruction quand la cible est VALIDEE
+    Optional<Inscription> transitionByAdmin(String id,
+                                            Collection<InscriptionStatus> expectedStatuses,
+                                            Long expectedVersion,
+                                            String reviewerId,
+                                            InscriptionStatus target,
+                                            String commentaire,
+                                            LocalDateTime now);
+}
@@ -0,0 +1,105 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Une seule instruction par décision, sans SELECT préalable :
+ * - PostgreSQL : UPDATE ... FROM inscriptions old ... RETURNING old.*. La jointure sur (id, version)
+ *   garantit que "old" est bien la version modifiée : si une autre transaction écrit entre-temps,
+ *   la condition est réévaluée sur la nouvelle version et échoue (0 ligne) ;
+ * - H2 (tests) : SELECT * FROM OLD TABLE (UPDATE ...), qui renvoie directement la ligne d'origine.
+ * La ligne d'origine donne le statut précédent (compteurs statistiques, événement) ; l'appelant y
+ * reporte les valeurs écrites pour la réponse. L'entité renvoyée est détachée.
+ */
+@RequiredArgsConstructor
+public class InscriptionTransitionRepositoryImpl implements InscriptionTransitionRepository {
+
+    private static final String RELEASE_LEASE = ", lease_owner = NULL, lease_expires_at = NULL";
+
+    private final EntityManager entityManager;
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<Inscription> transitionByDirecteur(String id, Collection<InscriptionStatus> expectedStatuses,
+                                                       Long expectedVersion, String reviewerId,
+                                                       InscriptionStatus target, String commentaire,
+                                                       LocalDateTime now) {
+        return transition(id, expectedStatuses, expectedVersion, reviewerId, target, commentaire, now,
+                "commentaire_directeur = :commentaire");
+    }
+
+    @Override
+    public Optional<Inscription> transitionByAdmin(String id, Collection<InscriptionStatus> expectedStatuses,
+                                                   Long expectedVersion, String reviewerId,
+                                                   InscriptionStatus target, String commentaire,
+                                                   LocalDateTime now) {
+        return transition(id, expectedStatuses, expectedVersion, reviewerId, target, commentaire, now,
+                target == InscriptionStatus.VALIDEE
+                        ? "commentaire_admin = :commentaire, date_validation = :now"
+                        : "commentaire_admin = :commentaire");
+    }
+
+    private Optional<Inscription> transition(String id, Collection<InscriptionStatus> expectedStatuses,
+                                             Long expectedVersion, String reviewerId, InscriptionStatus target,
+                                             String commentaire, LocalDateTime now, String actorColumns) {
+        String set = "status = :target, " + actorColumns + ", date_modification = :now, version = i.version + 1"
+                + RELEASE_LEASE;
+        StringBuilder where = new StringBuilder("i.id = :id AND i.status IN (:statuses)");
+        if (expectedVersion != null) {
+            where.append(" AND i.version = :expectedVersion");
+        }
+        // Bail actif d'un autre relecteur : la décision est refusée
+        where.append(reviewerId != null
+                ? " AND (i.lease_owner IS NULL OR i.lease_expires_at < :now OR i.lease_owner = :reviewerId)"
+                : " AND (i.lease_owner IS NULL OR i.lease_expires_at < :now)");
+
+        String sql = isPostgres()
+                ? "UPDATE inscriptions i SET " + set + " FROM inscriptions old WHERE " + where
+                        + " AND old.id = i.id AND old.version = i.version RETURNING old.*"
+                : "SELECT * FROM OLD TABLE (UPDATE inscriptions i SET " + set + " WHERE " + where + ")";
+
+        // Comme les UPDATE JPQL (flushAutomatically / clearAutomatically) : aucune entité périmée ne reste en contexte
+        entityManager.flush();
+        entityManager.clear();
+        Query query = entityManager.createNativeQuery(sql, Inscription.class)
+                .setParameter("id", id)
+                .setParameter("statuses", expectedStatuses.stream().map(Enum::name).collect(Collectors.toList()))
+                .setParameter("target", target.name())
+                .setParameter("commentaire", commentaire)
+                .setParameter("now", now);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        if (reviewerId != null) {
+            query.setParameter("reviewerId", reviewerId);
+        }
+        @SuppressWarnings("unchecked")
+        List<Inscription> previous = query.getResultList();
+        if (previous.isEmpty()) {
+            return Optional.empty();
+        }
+        // Ligne d'origine : ne doit pas être réécrite par le dirty checking
+        entityManager.detach(previous.get(0));
+        return Optional.of(previous.get(0));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,42 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Réserve les plus anciens événements sans bail actif. Les lignes verrouillées par une autre
+     * instance du relais sont sautées (SKIP LOCKED) au lieu d'être attendues. Un événement dont un
+     * prédécesseur de même clé est en cours de publication (bail actif) attend le passage suivant :
+     * l'ordre par doctorant est conservé entre instances.
+     */
+    @Query(value = "SELECT * FROM inscription_outbox o " +
+            "WHERE (o.lease_expires_at IS NULL OR o.lease_expires_at < :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM inscription_outbox p WHERE p.message_key = o.message_key " +
+            "AND p.id < o.id AND p.lease_expires_at >= :now) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE inscription_outbox SET lease_owner = :owner, lease_expires_at = :expiresAt WHERE id IN (:ids)",
+            nativeQuery = true)
+    int grantLeases(@Param("ids") Collection<Long> ids,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Événements non publiés rendus au passage suivant
+    @Modifying
+    @Query(value = "UPDATE inscription_outbox SET lease_owner = NULL, lease_expires_at = NULL " +
+            "WHERE id IN (:ids) AND lease_owner = :owner", nativeQuery = true)
+    int releaseLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+}
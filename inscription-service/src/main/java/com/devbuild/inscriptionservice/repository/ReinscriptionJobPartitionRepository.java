@@ -0,0 +1,29 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.model.ReinscriptionJobPartition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReinscriptionJobPartitionRepository extends JpaRepository<ReinscriptionJobPartition, Long> {
+
+    List<ReinscriptionJobPartition> findByJobIdOrderByPartitionIndex(String jobId);
+
+    // Verrou de la tranche pendant un lot : deux workers (éventuellement sur deux instances) se succèdent
+    // sur la même tranche et relisent chacun le point de reprise à jour
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ReinscriptionJobPartition p WHERE p.id = :id")
+    Optional<ReinscriptionJobPartition> lockById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM ReinscriptionJobPartition p WHERE p.jobId = :jobId")
+    int deleteByJobId(@Param("jobId") String jobId);
+}
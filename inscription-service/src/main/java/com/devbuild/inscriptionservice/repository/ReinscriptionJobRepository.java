@@ -0,0 +1,18 @@
+package com.devbuild.inscriptionservice.repository;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.ReinscriptionJobStatus;
+import com.devbuild.inscriptionservice.model.ReinscriptionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReinscriptionJobRepository extends JpaRepository<ReinscriptionJob, String> {
+
+    Optional<ReinscriptionJob> findBySourceAnneeAndTargetAnnee(AnneeAcademique sourceAnnee, AnneeAcademique targetAnnee);
+
+    List<ReinscriptionJob> findByStatus(ReinscriptionJobStatus status);
+}
@@ -0,0 +1,118 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Campagne;
+import com.devbuild.inscriptionservice.repository.CampagneRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Index en mémoire des campagnes actives, par type d'inscription.
+ * Répond à "une campagne est-elle ouverte à l'instant T ?" sans accès à la base.
+ *
+ * Cohérence entre instances : au-delà du TTL, une requête de version (COUNT + SUM(version))
+ * est exécutée, et l'index n'est rechargé que si la table a changé. Une modification faite
+ * sur une autre instance est donc visible au plus tard après le TTL.
+ * Les modifications locales (création, ouverture, fermeture) rechargent l'index immédiatement.
+ */
+@Component
+@Slf4j
+public class ActiveCampaignIndex {
+
+    private final CampagneRepository campagneRepository;
+    private final long ttlNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public ActiveCampaignIndex(CampagneRepository campagneRepository,
+                               @Value("${inscription.campagnes.index-ttl:5s}") Duration ttl) {
+        this.campagneRepository = campagneRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isOpen(InscriptionType type, LocalDateTime instant) {
+        for (Window window : current().windows.getOrDefault(type, Collections.emptyList())) {
+            if (!instant.isBefore(window.dateDebut) && !instant.isAfter(window.dateFin)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recharge l'index depuis la base (à appeler après une modification locale des campagnes).
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            snapshot = load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Premier accès : chargement bloquant
+            refresh();
+            return snapshot;
+        }
+        if (System.nanoTime() - current.checkedAt < ttlNanos) {
+            return current;
+        }
+        // Un seul thread vérifie la version, les autres continuent avec l'index courant
+        if (refreshLock.tryLock()) {
+            try {
+                String version = campagneRepository.findVersionStamp();
+                snapshot = Objects.equals(version, current.version) ? current.touch() : load();
+            } catch (RuntimeException e) {
+                log.warn("Vérification de l'index des campagnes impossible, index conservé: {}", e.getMessage());
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private Snapshot load() {
+        String version = campagneRepository.findVersionStamp();
+        Map<InscriptionType, List<Window>> windows = new EnumMap<>(InscriptionType.class);
+        for (Campagne campagne : campagneRepository.findByActiveTrue()) {
+            windows.computeIfAbsent(campagne.getType(), k -> new ArrayList<>())
+                    .add(new Window(campagne.getDateDebut(), campagne.getDateFin()));
+        }
+        log.info("Index des campagnes actives rechargé (version {}): {}", version, windows.keySet());
+        return new Snapshot(version, windows, System.nanoTime());
+    }
+
+    @AllArgsConstructor
+    private static final class Window {
+        private final LocalDateTime dateDebut;
+        private final LocalDateTime dateFin;
+    }
+
+    @AllArgsConstructor
+    private static final class Snapshot {
+        private final String version;
+        private final Map<InscriptionType, List<Window>> windows;
+        private final long checkedAt;
+
+        Snapshot touch() {
+            return new Snapshot(version, windows, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.AnneeClotureResponse;
+import com.devbuild.inscriptionservice.dto.AnneesAcademiquesResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+
+import java.util.List;
+
+public interface AnneeAcademiqueService {
+
+    // Années lues par défaut par les listes : l'année en cours et la (ou les) précédente(s)
+    List<AnneeAcademique> getActiveYears();
+
+    AnneesAcademiquesResponse getAnnees();
+
+    // Déplace les partitions d'une année révolue vers le schéma d'archive ; relancer termine une clôture interrompue
+    AnneeClotureResponse closeYear(AnneeAcademique anneeAcademique);
+}
@@ -0,0 +1,196 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.PartitioningProperties;
+import com.devbuild.inscriptionservice.dto.AnneeClotureResponse;
+import com.devbuild.inscriptionservice.dto.AnneeClotureeDTO;
+import com.devbuild.inscriptionservice.dto.AnneesAcademiquesResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.model.AnneeCloturee;
+import com.devbuild.inscriptionservice.repository.AnneeClotureeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Années académiques des tables inscriptions et documents.
+ * - Années actives : l'année en cours et la précédente (inscription.partitioning.active-years).
+ *   Les listes s'y limitent par défaut ; sous PostgreSQL, la condition porte sur la clé de
+ *   partitionnement et seules leurs partitions sont lues.
+ * - Tables partitionnées (inscription.partitioning.enabled, voir db/partitioning/postgresql-partitioning.sql) :
+ *   une partition par année et par table, créées au démarrage pour les années déclarées.
+ * - Clôture d'une année : ses deux partitions sont détachées puis rattachées aux tables du schéma
+ *   "archive", hors des tables courantes. Deux transactions : le détachement (verrou exclusif bref
+ *   sur les tables courantes, métadonnées uniquement), puis le rattachement qui revérifie les
+ *   lignes mais ne verrouille que les tables d'archive. Relancer la clôture termine la seconde étape.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnneeAcademiqueServiceImpl implements AnneeAcademiqueService {
+
+    static final String ARCHIVE_SCHEMA = "archive";
+    // Clé étrangère documents -> inscriptions créée par le script de partitionnement
+    static final String DOCUMENTS_FK = "fk_documents_inscription";
+
+    private final AnneeClotureeRepository anneeClotureeRepository;
+    private final PartitioningProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<AnneeAcademique> getActiveYears() {
+        AnneeAcademique courante = AnneeAcademique.at(LocalDate.now(), properties.getYearStartMonth());
+        List<AnneeAcademique> annees = new ArrayList<>();
+        AnneeAcademique[] values = AnneeAcademique.values();
+        for (int i = courante.ordinal(); i >= 0 && annees.size() < Math.max(1, properties.getActiveYears()); i--) {
+            annees.add(values[i]);
+        }
+        return annees;
+    }
+
+    @Override
+    public AnneesAcademiquesResponse getAnnees() {
+        List<AnneeAcademique> actives = getActiveYears();
+        return AnneesAcademiquesResponse.builder()
+                .success(true)
+                .message("Années académiques")
+                .partitioningEnabled(properties.isEnabled())
+                .anneeCourante(actives.get(0))
+                .anneesActives(actives)
+                .anneesCloturees(anneeClotureeRepository.findAll().stream()
+                        .sorted(Comparator.comparing(AnneeCloturee::getAnneeAcademique))
+                        .map(AnneeAcademiqueServiceImpl::toDTO)
+                        .collect(Collectors.toList()))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @Override
+    public AnneeClotureResponse closeYear(AnneeAcademique anneeAcademique) {
+        if (!properties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Tables non partitionnées : clôture impossible (inscription.partitioning.enabled=false)");
+        }
+        if (getActiveYears().contains(anneeAcademique)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "L'année " + anneeAcademique.getLabel() + " est encore active");
+        }
+        AnneeCloturee existing = anneeClotureeRepository.findById(anneeAcademique).orElse(null);
+        if (existing != null && existing.getArchiveeLe() != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "L'année " + anneeAcademique.getLabel() + " est déjà clôturée");
+        }
+
+        AnneeCloturee cloture = existing != null ? existing : transactionTemplate.execute(status -> detach(anneeAcademique));
+        AnneeCloturee archived = transactionTemplate.execute(status -> attachToArchive(cloture));
+        log.info("Année {} clôturée: {} inscription(s), {} document(s) archivés", anneeAcademique.getLabel(),
+                archived.getInscriptions(), archived.getDocuments());
+
+        return AnneeClotureResponse.builder()
+                .success(true)
+                .message("Année " + anneeAcademique.getLabel() + " clôturée")
+                .data(toDTO(archived))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    // Étape 1 : les partitions quittent les tables courantes (DETACH ... CONCURRENTLY est interdit
+    // dans une transaction, or les deux tables doivent changer ensemble)
+    private AnneeCloturee detach(AnneeAcademique anneeAcademique) {
+        String inscriptions = "inscriptions_" + anneeAcademique.getPartitionSuffix();
+        String documents = "documents_" + anneeAcademique.getPartitionSuffix();
+        long nbInscriptions = count(inscriptions);
+        long nbDocuments = count(documents);
+
+        execute("ALTER TABLE documents DETACH PARTITION " + documents);
+        // La clé étrangère héritée référence encore les inscriptions courantes : elle empêcherait leur détachement
+        execute("ALTER TABLE " + documents + " DROP CONSTRAINT IF EXISTS " + DOCUMENTS_FK);
+        execute("ALTER TABLE inscriptions DETACH PARTITION " + inscriptions);
+        execute("ALTER TABLE " + inscriptions + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        execute("ALTER TABLE " + documents + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        log.info("Partitions {} et {} détachées vers le schéma {}", inscriptions, documents, ARCHIVE_SCHEMA);
+
+        return anneeClotureeRepository.save(AnneeCloturee.builder()
+                .anneeAcademique(anneeAcademique)
+                .dateCloture(LocalDateTime.now())
+                .inscriptions(nbInscriptions)
+                .documents(nbDocuments)
+                .build());
+    }
+
+    // Étape 2 : rattachement aux tables d'archive (contrôle des lignes et de la clé étrangère d'archive)
+    private AnneeCloturee attachToArchive(AnneeCloturee cloture) {
+        AnneeAcademique anneeAcademique = cloture.getAnneeAcademique();
+        String values = " FOR VALUES IN ('" + anneeAcademique.name() + "')";
+        execute("ALTER TABLE " + ARCHIVE_SCHEMA + ".inscriptions ATTACH PARTITION " + ARCHIVE_SCHEMA
+                + ".inscriptions_" + anneeAcademique.getPartitionSuffix() + values);
+        execute("ALTER TABLE " + ARCHIVE_SCHEMA + ".documents ATTACH PARTITION " + ARCHIVE_SCHEMA
+                + ".documents_" + anneeAcademique.getPartitionSuffix() + values);
+        cloture.setArchiveeLe(LocalDateTime.now());
+        return anneeClotureeRepository.save(cloture);
+    }
+
+    /**
+     * Partitions des années déclarées dans AnneeAcademique, sauf les années clôturées.
+     * Sans partition, les dossiers d'une nouvelle année iraient dans la partition DEFAULT ;
+     * s'il y en a déjà, la création échoue et les lignes sont à déplacer à la main.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Set<AnneeAcademique> closed = anneeClotureeRepository.findAll().stream()
+                .map(AnneeCloturee::getAnneeAcademique)
+                .collect(Collectors.toSet());
+        for (AnneeAcademique anneeAcademique : AnneeAcademique.values()) {
+            if (closed.contains(anneeAcademique)) {
+                continue;
+            }
+            String values = " FOR VALUES IN ('" + anneeAcademique.name() + "')";
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    execute("CREATE TABLE IF NOT EXISTS inscriptions_" + anneeAcademique.getPartitionSuffix()
+                            + " PARTITION OF inscriptions" + values);
+                    execute("CREATE TABLE IF NOT EXISTS documents_" + anneeAcademique.getPartitionSuffix()
+                            + " PARTITION OF documents" + values);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Partitions de l'année {} non créées: {}", anneeAcademique.getLabel(), e.getMessage());
+            }
+        }
+    }
+
+    // Noms de tables construits uniquement à partir de AnneeAcademique
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    private long count(String table) {
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
+    }
+
+    private static AnneeClotureeDTO toDTO(AnneeCloturee cloture) {
+        return AnneeClotureeDTO.builder()
+                .anneeAcademique(cloture.getAnneeAcademique())
+                .inscriptions(cloture.getInscriptions())
+                .documents(cloture.getDocuments())
+                .dateCloture(cloture.getDateCloture())
+                .archiveeLe(cloture.getArchiveeLe())
+                .build();
+    }
+}
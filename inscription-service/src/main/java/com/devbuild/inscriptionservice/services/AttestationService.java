@@ -0,0 +1,11 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.AttestationContent;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AttestationService {
+
+    // Attestation d'une inscription VALIDEE : immédiate si déjà en cache, sinon rendue sur le pool dédié
+    CompletableFuture<AttestationContent> getAttestation(String inscriptionId);
+}
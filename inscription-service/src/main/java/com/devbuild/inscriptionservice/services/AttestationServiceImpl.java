@@ -0,0 +1,315 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.AttestationProperties;
+import com.devbuild.inscriptionservice.dto.AttestationContent;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.pdf.EmbeddedFont;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.openpdf.text.Document;
+import org.openpdf.text.Element;
+import org.openpdf.text.Font;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.Rectangle;
+import org.openpdf.text.pdf.ColumnText;
+import org.openpdf.text.pdf.PdfContentByte;
+import org.openpdf.text.pdf.PdfPCell;
+import org.openpdf.text.pdf.PdfPTable;
+import org.openpdf.text.pdf.PdfPageEventHelper;
+import org.openpdf.text.pdf.PdfWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Attestations d'inscription PDF, rendues une fois par version du dossier.
+ * - Cache disque : cacheDir/{id}-{dateModification}.pdf ; toute modification du dossier change
+ *   dateModification, donc le nom du fichier : pas d'invalidation à gérer. Les versions
+ *   précédentes sont supprimées après chaque rendu.
+ * - Une seule génération par version et par instance : les demandes simultanées attendent le
+ *   même rendu. Le fichier est écrit à côté puis déplacé atomiquement : jamais lu incomplet,
+ *   même si deux instances partagent le répertoire.
+ * - Rendu sur un pool borné (attestationRenderExecutor) : la requête HTTP est asynchrone et ne
+ *   bloque pas de thread Tomcat ; file pleine ou attente trop longue -> 503 avec Retry-After.
+ */
+@Service
+@Slf4j
+public class AttestationServiceImpl implements AttestationService {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static final float MARGIN = 60;
+
+    private final InscriptionRepository inscriptionRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final AttestationProperties properties;
+    private final Path cacheDir;
+
+    // Rendus en cours, par version
+    private final Map<String, CompletableFuture<AttestationContent>> rendering = new ConcurrentHashMap<>();
+
+    public AttestationServiceImpl(InscriptionRepository inscriptionRepository,
+                                  @Qualifier("attestationRenderExecutor") ThreadPoolTaskExecutor executor,
+                                  AttestationProperties properties) throws IOException {
+        this.inscriptionRepository = inscriptionRepository;
+        this.executor = executor;
+        this.properties = properties;
+        this.cacheDir = Paths.get(properties.getCacheDir()).toAbsolutePath().normalize();
+        Files.createDirectories(cacheDir);
+        log.info("Cache des attestations: {}", cacheDir);
+    }
+
+    @Override
+    public CompletableFuture<AttestationContent> getAttestation(String inscriptionId) {
+        Inscription inscription = inscriptionRepository.findById(inscriptionId)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée avec l'ID: " + inscriptionId));
+        if (inscription.getStatus() != InscriptionStatus.VALIDEE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Attestation disponible uniquement pour une inscription VALIDEE (statut: " + inscription.getStatus() + ")");
+        }
+
+        String version = inscription.getId() + "-" + modifiedAt(inscription).format(VERSION_FORMAT);
+        Path file = cacheDir.resolve(version + ".pdf");
+        if (Files.exists(file)) {
+            return CompletableFuture.completedFuture(content(inscription, version, file));
+        }
+
+        CompletableFuture<AttestationContent> created = new CompletableFuture<>();
+        CompletableFuture<AttestationContent> pending = rendering.putIfAbsent(version, created);
+        if (pending == null) {
+            pending = created;
+            try {
+                executor.execute(() -> {
+                    try {
+                        created.complete(render(inscription, version, file));
+                    } catch (Throwable e) {
+                        created.completeExceptionally(e);
+                    } finally {
+                        rendering.remove(version, created);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rendering.remove(version, created);
+                created.completeExceptionally(e);
+                throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Trop d'attestations en cours de génération, réessayez plus tard", properties.getRetryAfter());
+            }
+        }
+
+        // Copie : le délai d'attente de cette requête ne doit pas interrompre le rendu partagé
+        return pending.copy()
+                .orTimeout(properties.getRenderTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "Génération de l'attestation trop longue, réessayez plus tard", properties.getRetryAfter());
+                    }
+                    throw e instanceof CompletionException ce ? ce : new CompletionException(cause);
+                });
+    }
+
+    private AttestationContent render(Inscription inscription, String version, Path file) throws IOException {
+        // Rendu par une autre instance (répertoire partagé) pendant l'attente dans la file
+        if (!Files.exists(file)) {
+            long start = System.nanoTime();
+            byte[] pdf = renderPdf(inscription);
+            Path tmp = Files.createTempFile(cacheDir, version, ".tmp");
+            try {
+                Files.write(tmp, pdf);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            log.info("Attestation générée pour {} ({} octets, {} ms)", inscription.getId(), pdf.length,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        deletePreviousVersions(inscription.getId(), file);
+        return content(inscription, version, file);
+    }
+
+    private void deletePreviousVersions(String inscriptionId, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, inscriptionId + "-*.pdf")) {
+            for (Path previous : files) {
+                if (!previous.equals(current)) {
+                    Files.deleteIfExists(previous);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer les anciennes attestations de {}: {}", inscriptionId, e.getMessage());
+        }
+    }
+
+    private AttestationContent content(Inscription inscription, String version, Path file) {
+        try {
+            return AttestationContent.builder()
+                    .inscriptionId(inscription.getId())
+                    .fileName("attestation-inscription-" + inscription.getId() + ".pdf")
+                    .version(version)
+                    .dateModification(modifiedAt(inscription))
+                    .fileSize(Files.size(file))
+                    .resource(new FileSystemResource(file))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LocalDateTime modifiedAt(Inscription inscription) {
+        return inscription.getDateModification() != null ? inscription.getDateModification() : inscription.getDateCreation();
+    }
+
+    // --- Mise en page ---
+
+    private byte[] renderPdf(Inscription inscription) {
+        Font regular = new Font(EmbeddedFont.REGULAR.newBaseFont(), 11);
+        Font bold = new Font(EmbeddedFont.BOLD.newBaseFont(), 11);
+        String annee = inscription.getAnneeAcademique() != null ? inscription.getAnneeAcademique().getLabel() : "-";
+        LocalDateTime validation = inscription.getDateValidation() != null ? inscription.getDateValidation() : modifiedAt(inscription);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Marge basse : le pied de page (référence du dossier) est dessiné sous la zone de contenu
+        Document document = new Document(PageSize.A4, MARGIN, MARGIN, 60, 80);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setPageEvent(new Footer("Référence : " + inscription.getId() + " - dossier du "
+                + modifiedAt(inscription).format(DATE_TIME_FORMAT), font(regular, 8)));
+        document.addTitle("Attestation d'inscription");
+        document.addCreator(properties.getEtablissement());
+        document.open();
+
+        PdfPTable header = block(properties.getEtablissement(), font(bold, 12), Element.ALIGN_LEFT);
+        header.getRow(0).getCells()[0].setBorder(Rectangle.BOTTOM);
+        header.getRow(0).getCells()[0].setBorderWidthBottom(0.8f);
+        document.add(header);
+
+        PdfPTable title = block("ATTESTATION D'INSCRIPTION", font(bold, 20), Element.ALIGN_CENTER);
+        title.setSpacingBefore(50);
+        document.add(title);
+        document.add(block("Année universitaire " + annee, font(regular, 12), Element.ALIGN_CENTER));
+
+        String inscrit = inscription.getType() == InscriptionType.REINSCRIPTION ? "réinscrit(e)" : "inscrit(e)";
+        PdfPTable paragraph = block("Le " + properties.getEtablissement() + " atteste que " + nameOf(inscription)
+                + " est régulièrement " + inscrit + " en doctorat au titre de l'année universitaire " + annee + ".",
+                regular, Element.ALIGN_JUSTIFIED);
+        paragraph.setSpacingBefore(40);
+        document.add(paragraph);
+
+        // Valeurs longues (sujet de thèse) : retour à la ligne automatique, et la ligne peut être
+        // coupée entre deux pages plutôt que de déborder
+        PdfPTable fields = new PdfPTable(new float[]{150, PageSize.A4.getWidth() - 2 * MARGIN - 150});
+        fields.setWidthPercentage(100);
+        fields.setSplitLate(false);
+        fields.setSpacingBefore(20);
+        field(fields, regular, bold, "Doctorant(e)", nameOf(inscription));
+        field(fields, regular, bold, "Identifiant", inscription.getDoctorantId());
+        field(fields, regular, bold, "Courriel", inscription.getDoctorantEmail());
+        field(fields, regular, bold, "Type d'inscription",
+                inscription.getType() == InscriptionType.REINSCRIPTION ? "Réinscription" : "Première inscription");
+        field(fields, regular, bold, "Spécialité", inscription.getSpecialite());
+        field(fields, regular, bold, "Laboratoire", inscription.getLaboratoire());
+        field(fields, regular, bold, "Directeur de thèse",
+                inscription.getDirecteurName() != null ? inscription.getDirecteurName() : inscription.getDirecteurId());
+        if (inscription.getCoDirecteurId() != null) {
+            field(fields, regular, bold, "Co-directeur de thèse",
+                    inscription.getCoDirecteurName() != null ? inscription.getCoDirecteurName() : inscription.getCoDirecteurId());
+        }
+        field(fields, regular, bold, "Sujet de thèse", inscription.getSujetThese());
+        field(fields, regular, bold, "Date de validation", validation.format(DATE_FORMAT));
+        document.add(fields);
+
+        PdfPTable closing = block("Fait le " + validation.format(DATE_FORMAT) + ", pour servir et valoir ce que de droit.",
+                regular, Element.ALIGN_LEFT);
+        closing.setSpacingBefore(30);
+        document.add(closing);
+
+        document.close();
+        return out.toByteArray();
+    }
+
+    // Bloc de texte pleine largeur, sans bordure. Les cellules de tableau appliquent l'algorithme
+    // bidirectionnel (mise en forme des noms en écriture arabe), contrairement aux paragraphes simples.
+    private static PdfPTable block(String text, Font font, int alignment) {
+        PdfPTable table = new PdfPTable(1);
+        table.setWidthPercentage(100);
+        table.setSplitLate(false);
+        table.addCell(cell(text, font, alignment));
+        return table;
+    }
+
+    // Libellé en gras, valeur sur une ou plusieurs lignes
+    private static void field(PdfPTable fields, Font regular, Font bold, String label, String value) {
+        fields.addCell(cell(label + " :", bold, Element.ALIGN_LEFT));
+        fields.addCell(cell(value != null ? value : "-", regular, Element.ALIGN_LEFT));
+    }
+
+    private static PdfPCell cell(String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text != null ? text : "", font));
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setHorizontalAlignment(alignment);
+        cell.setRunDirection(PdfWriter.RUN_DIRECTION_LTR);
+        cell.setLeading(0, 1.4f);
+        cell.setPaddingLeft(0);
+        cell.setPaddingRight(0);
+        cell.setPaddingBottom(6);
+        return cell;
+    }
+
+    private static Font font(Font base, float size) {
+        return new Font(base.getBaseFont(), size);
+    }
+
+    // Filet et référence du dossier en bas de chaque page
+    private static final class Footer extends PdfPageEventHelper {
+
+        private final String reference;
+        private final Font font;
+
+        private Footer(String reference, Font font) {
+            this.reference = reference;
+            this.font = font;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            PdfContentByte canvas = writer.getDirectContent();
+            canvas.setLineWidth(0.5f);
+            canvas.moveTo(document.left(), 60);
+            canvas.lineTo(document.right(), 60);
+            canvas.stroke();
+            ColumnText.showTextAligned(canvas, Element.ALIGN_LEFT, new Phrase(reference, font),
+                    document.left(), 46, 0, PdfWriter.RUN_DIRECTION_LTR, 0);
+            ColumnText.showTextAligned(canvas, Element.ALIGN_RIGHT, new Phrase("Page " + writer.getPageNumber(), font),
+                    document.right(), 46, 0, PdfWriter.RUN_DIRECTION_LTR, 0);
+        }
+    }
+
+    private static String nameOf(Inscription inscription) {
+        return inscription.getDoctorantName() != null ? inscription.getDoctorantName() : inscription.getDoctorantId();
+    }
+}
@@ -16,6 +16,7 @@ import java.util.List;
 public class CampagneServiceImpl implements CampagneService {
 
     private final CampagneRepository campagneRepository;
+    private final ActiveCampaignIndex activeCampaignIndex;
 
     @Override
     public Campagne createCampagne(CreateCampagneRequest request) {
@@ -27,7 +28,9 @@ public class CampagneServiceImpl implements CampagneService {
                 .dateFin(request.getDateFin())
                 .active(false) // Par défaut, une campagne est créée "fermée"
                 .build();
-        return campagneRepository.save(campagne);
+        Campagne saved = campagneRepository.save(campagne);
+        activeCampaignIndex.refresh();
+        return saved;
     }
 
     @Override
@@ -42,7 +45,9 @@ public class CampagneServiceImpl implements CampagneService {
         }
 
         campagne.setActive(true);
-        return campagneRepository.save(campagne);
+        Campagne saved = campagneRepository.save(campagne);
+        activeCampaignIndex.refresh();
+        return saved;
     }
 
     @Override
@@ -50,7 +55,9 @@ public class CampagneServiceImpl implements CampagneService {
         log.info("Fermeture de la campagne {}", id);
         Campagne campagne = getCampagneEntityById(id);
         campagne.setActive(false);
-        return campagneRepository.save(campagne);
+        Campagne saved = campagneRepository.save(campagne);
+        activeCampaignIndex.refresh();
+        return saved;
     }
 
     @Override
@@ -0,0 +1,5 @@
+package com.devbuild.inscriptionservice.services;
+
+public interface DocumentBlobCollector {
+    int collect();
+}
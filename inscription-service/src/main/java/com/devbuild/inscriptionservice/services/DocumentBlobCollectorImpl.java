@@ -0,0 +1,110 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.DocumentCollectorProperties;
+import com.devbuild.inscriptionservice.config.PartitioningProperties;
+import com.devbuild.inscriptionservice.repository.AnneeClotureeRepository;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.storage.DocumentStorage;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ramasse-miettes des contenus du DocumentStorage (mark-and-sweep avec délai de grâce).
+ * Les suppressions de documents (unitaires ou en cascade avec l'inscription) et les uploads dont
+ * l'insertion échoue laissent le contenu en place ; il est supprimé ici quand :
+ * - aucun document, courant ou archivé, ne référence son empreinte ;
+ * - il n'a été ni écrit ni réutilisé par un upload depuis le délai de grâce.
+ * Un upload concurrent qui réutilise le contenu met à jour sa date de modification avant
+ * d'insérer ses métadonnées : le contenu est alors conservé (voir DocumentStorage).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentBlobCollectorImpl implements DocumentBlobCollector {
+
+    private final DocumentStorage documentStorage;
+    private final DocumentRepository documentRepository;
+    private final AnneeClotureeRepository anneeClotureeRepository;
+    private final DocumentCollectorProperties properties;
+    private final PartitioningProperties partitioningProperties;
+    private final EntityManager entityManager;
+
+    @Override
+    public int collect() {
+        if (partitioningProperties.isEnabled() && anneeClotureeRepository.existsByArchiveeLeIsNull()) {
+            // Partition de documents détachée mais pas encore rattachée : ses références seraient invisibles
+            log.warn("Clôture d'année inachevée : ramasse-miettes des documents reporté");
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(properties.getGracePeriod());
+        int deleted = 0;
+        try (Stream<String> candidates = documentStorage.listUnmodifiedSince(cutoff)) {
+            Iterator<String> it = candidates.iterator();
+            List<String> batch = new ArrayList<>(properties.getBatchSize());
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == properties.getBatchSize() || !it.hasNext()) {
+                    deleted += collectBatch(batch, cutoff);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Parcours du stockage des documents interrompu: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Ramasse-miettes des documents: {} contenu(s) supprimé(s)", deleted);
+        }
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${inscription.documents.gc.interval:3600000}")
+    public void scheduledCollect() {
+        if (properties.isEnabled()) {
+            collect();
+        }
+    }
+
+    private int collectBatch(List<String> hashes, Instant cutoff) {
+        Set<String> referenced = referencedHashes(hashes);
+        int deleted = 0;
+        for (String hash : hashes) {
+            if (referenced.contains(hash)) {
+                continue;
+            }
+            try {
+                if (documentStorage.deleteIfUnmodifiedSince(hash, cutoff)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.error("Impossible de supprimer le contenu {}: {}", hash, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> referencedHashes(List<String> hashes) {
+        Set<String> referenced = new HashSet<>(documentRepository.findReferencedHashes(hashes));
+        if (partitioningProperties.isEnabled()) {
+            // Documents des années clôturées (schéma d'archive, hors de l'entité Document)
+            referenced.addAll(entityManager.createNativeQuery("SELECT DISTINCT content_hash FROM "
+                            + AnneeAcademiqueServiceImpl.ARCHIVE_SCHEMA + ".documents WHERE content_hash IN (:hashes)")
+                    .setParameter("hashes", hashes)
+                    .getResultList());
+        }
+        return referenced;
+    }
+}
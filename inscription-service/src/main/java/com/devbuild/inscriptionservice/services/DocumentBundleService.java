@@ -0,0 +1,19 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.repository.DocumentBundleItem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface DocumentBundleService {
+
+    // Lu avant l'envoi de la réponse : une inscription inexistante est signalée avant le premier octet
+    List<DocumentBundleItem> getInscriptionDocuments(String inscriptionId);
+
+    long writeBundle(List<DocumentBundleItem> documents, OutputStream out) throws IOException;
+
+    long writeCohortBundle(AnneeAcademique anneeAcademique, InscriptionStatus status, OutputStream out) throws IOException;
+}
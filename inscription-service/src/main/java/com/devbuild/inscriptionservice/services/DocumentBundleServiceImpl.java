@@ -0,0 +1,236 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.repository.DocumentBundleItem;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.storage.DocumentStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Archives ZIP des documents, écrites en flux sur la réponse : chaque entrée est copiée depuis le
+ * stockage au moment où elle est écrite, sans fichier temporaire ni archive en mémoire.
+ * - Les formats déjà compressés (PDF, images, archives, documents Office) sont stockés tels quels
+ *   (STORED) : les recompresser coûte du CPU pour un gain nul. Une entrée STORED exige son CRC
+ *   avant le contenu : celui enregistré à l'upload est utilisé, le fichier n'est lu qu'une fois.
+ *   Seuls les documents antérieurs (CRC absent) sont lus une première fois pour le calculer.
+ * - Pour une cohorte, les métadonnées sont lues par pages (requêtes courtes) : aucune connexion
+ *   n'est gardée pendant le transfert.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentBundleServiceImpl implements DocumentBundleService {
+
+    private static final int PAGE_SIZE = 200;
+
+    private static final Set<String> COMPRESSED_CONTENT_TYPES = Set.of(
+            "application/pdf", "application/zip", "application/gzip", "application/x-7z-compressed",
+            "application/vnd.rar", "image/jpeg", "image/png", "image/gif", "image/webp",
+            "video/mp4", "audio/mpeg");
+    // docx, xlsx, pptx, odt... sont eux-mêmes des archives ZIP
+    private static final String[] COMPRESSED_PREFIXES = {
+            "application/vnd.openxmlformats-officedocument.", "application/vnd.oasis.opendocument."};
+
+    private final DocumentRepository documentRepository;
+    private final InscriptionRepository inscriptionRepository;
+    private final DocumentStorage documentStorage;
+
+    @Override
+    public List<DocumentBundleItem> getInscriptionDocuments(String inscriptionId) {
+        if (!inscriptionRepository.existsById(inscriptionId)) {
+            throw new RuntimeException("Inscription non trouvée: " + inscriptionId);
+        }
+        return documentRepository.findBundleItemsByInscriptionId(inscriptionId);
+    }
+
+    @Override
+    public long writeBundle(List<DocumentBundleItem> documents, OutputStream out) throws IOException {
+        BundleWriter writer = new BundleWriter(out, false);
+        for (DocumentBundleItem document : documents) {
+            writer.add(document);
+        }
+        return writer.finish();
+    }
+
+    @Override
+    public long writeCohortBundle(AnneeAcademique anneeAcademique, InscriptionStatus status, OutputStream out)
+            throws IOException {
+        log.info("Archive des documents (annee={}, status={})", anneeAcademique, status);
+        Set<InscriptionStatus> statuses = status != null ? EnumSet.of(status) : EnumSet.allOf(InscriptionStatus.class);
+        BundleWriter writer = new BundleWriter(out, true);
+        String afterInscriptionId = "";
+        String afterId = "";
+        List<DocumentBundleItem> page;
+        do {
+            page = documentRepository.findBundleItemsPage(anneeAcademique, statuses, afterInscriptionId, afterId,
+                    Limit.of(PAGE_SIZE));
+            for (DocumentBundleItem document : page) {
+                writer.add(document);
+            }
+            if (!page.isEmpty()) {
+                DocumentBundleItem last = page.get(page.size() - 1);
+                afterInscriptionId = last.getInscriptionId();
+                afterId = last.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return writer.finish();
+    }
+
+    private static boolean isCompressed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        if (COMPRESSED_CONTENT_TYPES.contains(type)) {
+            return true;
+        }
+        for (String prefix : COMPRESSED_PREFIXES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Nom de fichier seul (aucun chemin ne doit sortir du dossier de l'archive)
+    private static String safeName(String value, String fallback) {
+        String name = value == null ? null : StringUtils.getFilename(StringUtils.cleanPath(value.replace('\\', '/')));
+        return StringUtils.hasText(name) && !"..".equals(name) ? name : fallback;
+    }
+
+    private Resource contentOf(DocumentBundleItem document) {
+        if (document.getContentHash() != null) {
+            return documentStorage.load(document.getContentHash());
+        }
+        // Document pas encore migré : contenu en base (BYTEA)
+        byte[] data = documentRepository.findDataById(document.getId());
+        return data != null ? new ByteArrayResource(data) : null;
+    }
+
+    /**
+     * Écriture de l'archive, entrée par entrée. Les noms en double dans un même dossier sont
+     * suffixés ; les contenus introuvables sont listés dans une dernière entrée.
+     */
+    private final class BundleWriter {
+
+        private final ZipOutputStream zip;
+        private final boolean folderPerInscription;
+        // Noms déjà utilisés dans le dossier courant (documents triés par inscription)
+        private final Set<String> names = new HashSet<>();
+        private String currentFolder = "";
+        private final List<String> missing = new ArrayList<>();
+        private final byte[] buffer = new byte[64 * 1024];
+        private long count;
+
+        private BundleWriter(OutputStream out, boolean folderPerInscription) {
+            this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            this.folderPerInscription = folderPerInscription;
+        }
+
+        private void add(DocumentBundleItem document) throws IOException {
+            Resource resource = contentOf(document);
+            String name = entryName(document);
+            if (resource == null || !resource.exists()) {
+                log.warn("Contenu introuvable pour le document {} ({})", document.getId(), document.getContentHash());
+                missing.add(name + " (document " + document.getId() + ")");
+                return;
+            }
+
+            ZipEntry entry = new ZipEntry(name);
+            if (isCompressed(document.getContentType())) {
+                entry.setMethod(ZipEntry.STORED);
+                if (document.getContentCrc32() != null) {
+                    entry.setSize(document.getFileSize());
+                    entry.setCompressedSize(document.getFileSize());
+                    entry.setCrc(document.getContentCrc32());
+                } else {
+                    checksum(resource, entry);
+                }
+            }
+            zip.putNextEntry(entry);
+            try (InputStream in = resource.getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+            }
+            zip.closeEntry();
+            // Chaque entrée part vers le client dès qu'elle est écrite
+            zip.flush();
+            count++;
+        }
+
+        // Documents antérieurs au CRC enregistré à l'upload : première lecture pour le calculer
+        private void checksum(Resource resource, ZipEntry entry) throws IOException {
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream in = new CheckedInputStream(resource.getInputStream(), crc)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                }
+            }
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc.getValue());
+        }
+
+        private String entryName(DocumentBundleItem document) {
+            String folder = folderPerInscription
+                    ? safeName(document.getDoctorantId(), "doctorant") + "_" + document.getInscriptionId() + "/"
+                    : "";
+            if (!folder.equals(currentFolder)) {
+                currentFolder = folder;
+                names.clear();
+            }
+            String fileName = safeName(document.getFileName(), "document-" + document.getId());
+            String name = folder + fileName;
+            int dot = fileName.lastIndexOf('.');
+            String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+            String extension = dot > 0 ? fileName.substring(dot) : "";
+            for (int i = 2; !names.add(name); i++) {
+                name = folder + base + " (" + i + ")" + extension;
+            }
+            return name;
+        }
+
+        private long finish() throws IOException {
+            if (!missing.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("documents-manquants.txt"));
+                zip.write(String.join("\n", missing).concat("\n").getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+            log.info("Archive terminée: {} document(s), {} introuvable(s)", count, missing.size());
+            return count;
+        }
+    }
+}
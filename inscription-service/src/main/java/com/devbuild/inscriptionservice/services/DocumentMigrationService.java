@@ -0,0 +1,5 @@
+package com.devbuild.inscriptionservice.services;
+
+public interface DocumentMigrationService {
+    int migrateBatch(int batchSize);
+}
@@ -0,0 +1,74 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.storage.DocumentStorage;
+import com.devbuild.inscriptionservice.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Migration des contenus BYTEA existants vers le DocumentStorage.
+ * Chaque document est migré dans sa propre transaction : un seul contenu en mémoire
+ * à la fois, et une interruption ne perd que le document en cours.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentMigrationServiceImpl implements DocumentMigrationService {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage documentStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inscription.documents.migration.enabled:false}")
+    private boolean scheduledMigrationEnabled;
+
+    @Value("${inscription.documents.migration.batch-size:100}")
+    private int scheduledBatchSize;
+
+    @Override
+    public int migrateBatch(int batchSize) {
+        List<String> ids = documentRepository.findIdsToMigrate(Limit.of(batchSize));
+        int migrated = 0;
+        for (String id : ids) {
+            Boolean done = transactionTemplate.execute(status -> migrateOne(id));
+            if (Boolean.TRUE.equals(done)) {
+                migrated++;
+            }
+        }
+        log.info("Migration des documents: {}/{} migrés dans ce lot", migrated, ids.size());
+        return migrated;
+    }
+
+    @Scheduled(fixedDelayString = "${inscription.documents.migration.interval:60000}")
+    public void scheduledMigration() {
+        if (scheduledMigrationEnabled) {
+            migrateBatch(scheduledBatchSize);
+        }
+    }
+
+    private boolean migrateOne(String id) {
+        byte[] data = documentRepository.findDataById(id);
+        if (data == null) {
+            // Contenu vide : migré quand même pour ne pas rester bloqué dans les lots suivants
+            log.warn("Document {} sans contenu en base", id);
+            data = new byte[0];
+        }
+        try {
+            StoredBlob blob = documentStorage.store(new ByteArrayInputStream(data));
+            return documentRepository.markMigrated(id, blob.getContentHash(), blob.getCrc32()) == 1;
+        } catch (IOException e) {
+            log.error("Échec de migration du document {}: {}", id, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package com.devbuild.inscriptionservice.services;
 
+import com.devbuild.inscriptionservice.dto.DocumentContent;
 import com.devbuild.inscriptionservice.dto.DocumentInfoDTO;
-import com.devbuild.inscriptionservice.model.Document;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface DocumentService {
-    DocumentInfoDTO store(MultipartFile file, String inscriptionId) throws IOException;
-    Document getDocument(String documentId);
+    DocumentInfoDTO store(String inscriptionId, String originalFileName, String contentType, InputStream content) throws IOException;
+    DocumentContent getDocumentContent(String documentId);
     void deleteDocument(String documentId);
-}
\ No newline at end of file
+}
@@ -1,18 +1,27 @@
 package com.devbuild.inscriptionservice.services;
 
+import com.devbuild.inscriptionservice.config.DocumentUploadProperties;
+import com.devbuild.inscriptionservice.dto.DocumentContent;
 import com.devbuild.inscriptionservice.dto.DocumentInfoDTO;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
 import com.devbuild.inscriptionservice.model.Document;
-import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.DocumentMetadata;
 import com.devbuild.inscriptionservice.repository.DocumentRepository;
 import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.storage.DocumentStorage;
+import com.devbuild.inscriptionservice.storage.SizeLimitedInputStream;
+import com.devbuild.inscriptionservice.storage.StoredBlob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 @Service
 @Slf4j
@@ -21,28 +30,43 @@ public class DocumentServiceImpl implements DocumentService {
 
     private final DocumentRepository documentRepository;
     private final InscriptionRepository inscriptionRepository; // Pour lier le document
+    private final DocumentStorage documentStorage;
+    private final DocumentUploadProperties uploadProperties;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Upload en flux : le contenu est copié par blocs vers le stockage (empreinte et taille
+     * et CRC calculés au passage, limite par type vérifiée pendant la lecture), puis seules les
+     * métadonnées sont insérées dans une transaction courte.
+     * Aucune transaction ni connexion n'est ouverte pendant le transfert.
+     * Si l'insertion échoue, le contenu reste sans référence et sera récupéré par le ramasse-miettes.
+     */
     @Override
-    @Transactional
-    public DocumentInfoDTO store(MultipartFile file, String inscriptionId) throws IOException {
-        log.info("Stockage du fichier {} pour l'inscription {}", file.getOriginalFilename(), inscriptionId);
+    public DocumentInfoDTO store(String inscriptionId, String originalFileName, String contentType,
+                                 InputStream content) throws IOException {
+        log.info("Stockage du fichier {} pour l'inscription {}", originalFileName, inscriptionId);
 
-        // 1. Récupérer l'entité Inscription
-        Inscription inscription = inscriptionRepository.findById(inscriptionId)
-                .orElseThrow(() -> new RuntimeException("Inscription non trouvée: " + inscriptionId));
+        // 1. Vérifier l'inscription avant de lire le corps
+        // L'année est recopiée sur le document (clé de partitionnement)
+        AnneeAcademique anneeAcademique = inscriptionRepository.findAnneeAcademiqueById(inscriptionId)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée: " + inscriptionId))
+                .getAnneeAcademique();
 
-        // 2. Créer l'entité Document
-        String fileName = StringUtils.cleanPath(file.getOriginalFilename());
-        Document document = Document.builder()
-                .fileName(fileName)
-                .contentType(file.getContentType())
-                .fileSize(file.getSize())
-                .data(file.getBytes())
-                .inscription(inscription) // Lier le document à l'inscription
-                .build();
+        // 2. Écrire le contenu dans le stockage (déduplication par empreinte)
+        long maxSize = uploadProperties.maxSizeFor(contentType);
+        StoredBlob blob = documentStorage.store(new SizeLimitedInputStream(content, maxSize));
 
-        // 3. Sauvegarder et retourner le DTO
-        Document savedDocument = documentRepository.save(document);
+        // 3. Créer l'entité Document (métadonnées + empreinte uniquement)
+        String fileName = StringUtils.cleanPath(originalFileName);
+        Document savedDocument = transactionTemplate.execute(status -> documentRepository.save(Document.builder()
+                .fileName(fileName)
+                .contentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .fileSize(blob.getSize())
+                .contentHash(blob.getContentHash())
+                .contentCrc32(blob.getCrc32())
+                .anneeAcademique(anneeAcademique)
+                .inscription(inscriptionRepository.getReferenceById(inscriptionId)) // Lier le document à l'inscription
+                .build()));
 
         return DocumentInfoDTO.builder()
                 .id(savedDocument.getId())
@@ -53,14 +77,35 @@ public class DocumentServiceImpl implements DocumentService {
     }
 
     @Override
-    @Transactional(readOnly = true) // Important pour les données LAZY (les bytes)
-    public Document getDocument(String documentId) {
+    @Transactional(readOnly = true)
+    public DocumentContent getDocumentContent(String documentId) {
         log.info("Récupération du document: {}", documentId);
-        // Récupère l'entité complète (y compris les données LAZY)
-        return documentRepository.findById(documentId)
+        // Métadonnées seulement : la colonne BYTEA n'est lue que pour les documents non migrés
+        DocumentMetadata metadata = documentRepository.findMetadataById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document non trouvé: " + documentId));
+
+        DocumentContent.DocumentContentBuilder content = DocumentContent.builder()
+                .id(metadata.getId())
+                .fileName(metadata.getFileName())
+                .contentType(metadata.getContentType())
+                .fileSize(metadata.getFileSize())
+                .contentHash(metadata.getContentHash())
+                .dateCreation(metadata.getDateCreation());
+
+        if (metadata.getContentHash() != null) {
+            content.resource(documentStorage.load(metadata.getContentHash()))
+                    .file(documentStorage.resolve(metadata.getContentHash()));
+        } else {
+            log.warn("Document {} encore stocké en base (non migré)", documentId);
+            content.resource(new ByteArrayResource(documentRepository.findDataById(documentId)));
+        }
+        return content.build();
     }
 
+    /**
+     * Seules les métadonnées sont supprimées : le contenu, éventuellement partagé, est récupéré
+     * par le ramasse-miettes (DocumentBlobCollector) quand plus aucun document ne le référence.
+     */
     @Override
     @Transactional
     public void deleteDocument(String documentId) {
@@ -70,4 +115,4 @@ public class DocumentServiceImpl implements DocumentService {
         }
         documentRepository.deleteById(documentId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.IdempotencyClaim;
+
+public interface IdempotencyService {
+    IdempotencyClaim claim(String scope, String key, Object request);
+    void complete(IdempotencyClaim claim, String inscriptionId);
+    void release(IdempotencyClaim claim);
+}
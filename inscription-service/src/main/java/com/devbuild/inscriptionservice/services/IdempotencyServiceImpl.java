@@ -0,0 +1,126 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.IdempotencyProperties;
+import com.devbuild.inscriptionservice.dto.IdempotencyClaim;
+import com.devbuild.inscriptionservice.enums.IdempotencyStatus;
+import com.devbuild.inscriptionservice.model.IdempotencyRecord;
+import com.devbuild.inscriptionservice.model.IdempotencyRecordId;
+import com.devbuild.inscriptionservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Clés d'idempotence (en-tête Idempotency-Key).
+ * La réservation est un INSERT ... ON CONFLICT DO NOTHING validé immédiatement : entre deux copies
+ * simultanées d'une requête, même sur deux instances, une seule obtient la clé. La clé est complétée
+ * dans la transaction qui insère l'inscription : une requête EN_COURS dont le bail a expiré n'a donc
+ * rien écrit et peut être rejouée sans risque de doublon.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public IdempotencyClaim claim(String scope, String key, Object request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères");
+        }
+        String requestHash = hash(request);
+        IdempotencyRecordId id = new IdempotencyRecordId(scope, key);
+
+        IdempotencyClaim claim = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.insertIfAbsent(scope, key, requestHash, now.plus(properties.getLease()),
+                    now.plus(properties.getTtl()), now) == 1) {
+                return acquired(scope, key);
+            }
+            IdempotencyRecord existing = repository.findById(id).orElse(null);
+            if (existing == null) {
+                // Supprimée entre-temps (échec de la requête d'origine) : le client peut réessayer
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Requête en cours de traitement, réessayez");
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key déjà utilisée pour une requête différente");
+            }
+            if (existing.getStatus() == IdempotencyStatus.TERMINEE) {
+                return IdempotencyClaim.builder().scope(scope).key(key).acquired(false)
+                        .inscriptionId(existing.getInscriptionId()).build();
+            }
+            if (repository.takeOver(id, now.plus(properties.getLease()), now) == 1) {
+                log.warn("Reprise de la requête idempotente abandonnée {}/{}", scope, key);
+                return acquired(scope, key);
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requête en cours de traitement, réessayez");
+        });
+        if (claim != null && !claim.isAcquired()) {
+            log.info("Requête idempotente {}/{} déjà traitée: inscription {}", scope, key, claim.getInscriptionId());
+        }
+        return claim;
+    }
+
+    private IdempotencyClaim acquired(String scope, String key) {
+        return IdempotencyClaim.builder().scope(scope).key(key).acquired(true).build();
+    }
+
+    /**
+     * Doit être appelée dans la transaction qui écrit le résultat.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(IdempotencyClaim claim, String inscriptionId) {
+        if (repository.complete(new IdempotencyRecordId(claim.getScope(), claim.getKey()), inscriptionId) != 1) {
+            // Bail expiré et clé reprise (ou libérée) par une autre requête : on annule cette exécution
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency-Key reprise par une autre requête");
+        }
+    }
+
+    /**
+     * Libère la clé après un échec, pour qu'un nouvel essai avec la même clé soit exécuté.
+     */
+    @Override
+    public void release(IdempotencyClaim claim) {
+        transactionTemplate.executeWithoutResult(status ->
+                repository.release(new IdempotencyRecordId(claim.getScope(), claim.getKey())));
+    }
+
+    @Scheduled(fixedDelayString = "${inscription.idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("{} clé(s) d'idempotence expirée(s) supprimée(s)", deleted);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Empreinte de la requête impossible", e);
+        }
+    }
+}
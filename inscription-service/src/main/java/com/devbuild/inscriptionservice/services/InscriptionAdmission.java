@@ -0,0 +1,189 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Contrôle d'admission des créations d'inscription (pics d'ouverture de campagne).
+ * - au plus maxConcurrent créations en cours : les threads Tomcat, le pool Hikari et user-service
+ *   ne sont jamais sollicités au-delà ;
+ * - file d'attente bornée, servie à tour de rôle par utilisateur (une file par utilisateur,
+ *   parcourues en round-robin) : un client qui réessaie en boucle n'occupe qu'un tour à la fois ;
+ * - refus immédiat avec Retry-After : 503 si la file est pleine ou l'attente dépasse maxWait,
+ *   429 si l'utilisateur a déjà maxQueuedPerUser requêtes en attente.
+ * Métriques : inscription.admission.in_flight, inscription.admission.queue.depth,
+ * inscription.admission.wait (timer) et inscription.admission.rejected (tag reason).
+ */
+@Component
+public class InscriptionAdmission {
+
+    private final AdmissionProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ordre d'insertion = ordre de passage ; un utilisateur servi repasse en fin de tour
+    private final LinkedHashMap<String, ArrayDeque<CompletableFuture<Void>>> waitingByUser = new LinkedHashMap<>();
+    private int running;
+    private int queued;
+
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedUserLimit;
+    private final Counter rejectedTimeout;
+
+    public InscriptionAdmission(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("inscription.admission.in_flight", this, a -> a.snapshot(true))
+                .description("Créations d'inscription en cours")
+                .register(meterRegistry);
+        Gauge.builder("inscription.admission.queue.depth", this, a -> a.snapshot(false))
+                .description("Créations d'inscription en attente d'admission")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("inscription.admission.wait")
+                .description("Attente avant admission")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter(meterRegistry, "queue_full");
+        this.rejectedUserLimit = rejectedCounter(meterRegistry, "user_limit");
+        this.rejectedTimeout = rejectedCounter(meterRegistry, "timeout");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("inscription.admission.rejected")
+                .description("Créations refusées par le contrôle d'admission")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute action une fois admise pour userKey, ou lève AdmissionRejectedException.
+     */
+    public <T> T call(String userKey, Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+        acquire(userKey == null ? "" : userKey);
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    private void acquire(String userKey) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> ticket;
+        lock.lock();
+        try {
+            if (running < properties.getMaxConcurrent() && queued == 0) {
+                running++;
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            ArrayDeque<CompletableFuture<Void>> waiting = waitingByUser.get(userKey);
+            if (waiting != null && waiting.size() >= properties.getMaxQueuedPerUser()) {
+                rejectedUserLimit.increment();
+                throw reject(HttpStatus.TOO_MANY_REQUESTS, "Une demande est déjà en attente pour cet utilisateur");
+            }
+            if (queued >= properties.getMaxQueue()) {
+                rejectedQueueFull.increment();
+                throw reject(HttpStatus.SERVICE_UNAVAILABLE, "Service saturé, réessayez plus tard");
+            }
+            ticket = new CompletableFuture<>();
+            waitingByUser.computeIfAbsent(userKey, k -> new ArrayDeque<>()).addLast(ticket);
+            queued++;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            ticket.get(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(userKey, ticket);
+            rejectedTimeout.increment();
+            throw reject(HttpStatus.SERVICE_UNAVAILABLE, "Délai d'attente dépassé, réessayez plus tard");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(userKey, ticket);
+            throw reject(HttpStatus.SERVICE_UNAVAILABLE, "Requête interrompue");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Retire un ticket expiré ; s'il a été admis entre-temps, la place est rendue
+    private void abandon(String userKey, CompletableFuture<Void> ticket) {
+        lock.lock();
+        try {
+            if (ticket.isDone()) {
+                running--;
+                dispatch();
+                return;
+            }
+            ArrayDeque<CompletableFuture<Void>> waiting = waitingByUser.get(userKey);
+            if (waiting != null && waiting.remove(ticket)) {
+                queued--;
+                if (waiting.isEmpty()) {
+                    waitingByUser.remove(userKey);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            running--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Admet les tickets en attente à tour de rôle, un par utilisateur et par tour
+    private void dispatch() {
+        while (running < properties.getMaxConcurrent() && queued > 0) {
+            Iterator<Map.Entry<String, ArrayDeque<CompletableFuture<Void>>>> it = waitingByUser.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<CompletableFuture<Void>>> next = it.next();
+            it.remove();
+            CompletableFuture<Void> ticket = next.getValue().pollFirst();
+            if (!next.getValue().isEmpty()) {
+                waitingByUser.put(next.getKey(), next.getValue());
+            }
+            queued--;
+            running++;
+            ticket.complete(null);
+        }
+    }
+
+    private AdmissionRejectedException reject(HttpStatus status, String reason) {
+        return new AdmissionRejectedException(status, reason, properties.getRetryAfter());
+    }
+
+    private int snapshot(boolean inFlight) {
+        lock.lock();
+        try {
+            return inFlight ? running : queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
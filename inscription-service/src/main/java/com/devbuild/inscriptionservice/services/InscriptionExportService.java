@@ -0,0 +1,11 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionFilter;
+import com.devbuild.inscriptionservice.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface InscriptionExportService {
+    long exportInscriptions(InscriptionFilter filter, ExportFormat format, OutputStream out) throws IOException;
+}
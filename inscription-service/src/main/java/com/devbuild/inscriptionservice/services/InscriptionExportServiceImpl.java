@@ -0,0 +1,169 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionFilter;
+import com.devbuild.inscriptionservice.enums.ExportFormat;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.InscriptionSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class InscriptionExportServiceImpl implements InscriptionExportService {
+
+    // On vide le tampon régulièrement pour que le client reçoive les données au fil de l'eau
+    private static final int FLUSH_EVERY = 500;
+
+    // Lignes lues par aller-retour du curseur serveur
+    private static final int FETCH_SIZE = 500;
+
+    private static final String[] CSV_HEADER = {
+            "id", "doctorantId", "doctorantName", "doctorantEmail", "directeurId", "directeurName",
+            "coDirecteurId", "coDirecteurName", "type", "status", "anneeAcademique", "laboratoire",
+            "specialite", "sujetThese", "dateCreation", "dateModification", "dateValidation"
+    };
+
+    private final AnneeAcademiqueService anneeAcademiqueService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Écrit les inscriptions une par une sur le flux de sortie.
+     * La mémoire reste constante : curseur JDBC côté serveur, et chaque entité est
+     * détachée du contexte de persistance dès qu'elle a été écrite.
+     *
+     * @return le nombre de lignes exportées
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportInscriptions(InscriptionFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Export {} des inscriptions (filtre: {})", format, filter);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+
+        try (Stream<Inscription> rows = streamForExport(filter)) {
+
+            // Pas de flush après chaque ligne (FLUSH_AFTER_WRITE_VALUE) : flush périodique ci-dessous
+            ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator json = null;
+            if (format == ExportFormat.NDJSON) {
+                json = rowWriter.createGenerator(writer);
+                json.setRootValueSeparator(null);
+            } else {
+                writeCsvLine(writer, CSV_HEADER);
+            }
+
+            Iterator<Inscription> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Inscription inscription = iterator.next();
+                InscriptionDTO dto = InscriptionServiceImpl.mapToDTO(inscription, null);
+
+                if (json != null) {
+                    rowWriter.writeValue(json, dto);
+                    json.writeRaw('\n');
+                } else {
+                    writeCsvLine(writer, toCsvRow(dto));
+                }
+
+                entityManager.detach(inscription);
+                count++;
+                // Premier octet envoyé dès la première ligne, puis flush périodique
+                if (count == 1 || count % FLUSH_EVERY == 0) {
+                    if (json != null) {
+                        json.flush();
+                    }
+                    writer.flush();
+                }
+            }
+
+            if (json != null) {
+                json.flush();
+            }
+            writer.flush();
+        }
+
+        log.info("Export terminé: {} inscriptions", count);
+        return count;
+    }
+
+    /**
+     * Parcours "forward-only" : PostgreSQL renvoie les lignes par paquets (fetch size) via un curseur
+     * serveur au lieu de matérialiser tout le résultat. Mêmes critères que les listes
+     * (InscriptionSpecifications) : seuls les filtres renseignés sont ajoutés, les index restent utilisables.
+     * Sans année précisée : années actives uniquement, sauf demande explicite des archives.
+     */
+    private Stream<Inscription> streamForExport(InscriptionFilter filter) {
+        Specification<Inscription> spec = InscriptionSpecifications.matching(filter);
+        if (filter.getAnneeAcademique() == null && !filter.isIncludeArchives()) {
+            spec = spec.and(InscriptionSpecifications.inAnnees(anneeAcademiqueService.getActiveYears()));
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Inscription> query = cb.createQuery(Inscription.class);
+        Root<Inscription> root = query.from(Inscription.class);
+        query.where(spec.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("dateCreation")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    private String[] toCsvRow(InscriptionDTO dto) {
+        return new String[]{
+                dto.getId(), dto.getDoctorantId(), dto.getDoctorantName(), dto.getDoctorantEmail(),
+                dto.getDirecteurId(), dto.getDirecteurName(), dto.getCoDirecteurId(), dto.getCoDirecteurName(),
+                str(dto.getType()), str(dto.getStatus()), str(dto.getAnneeAcademique()), dto.getLaboratoire(),
+                dto.getSpecialite(), dto.getSujetThese(), str(dto.getDateCreation()),
+                str(dto.getDateModification()), str(dto.getDateValidation())
+        };
+    }
+
+    private static String str(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 : guillemets si la valeur contient un séparateur, un guillemet ou un saut de ligne
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -1,21 +1,33 @@
 package com.devbuild.inscriptionservice.services;
 
 import com.devbuild.inscriptionservice.dto.*;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
 import com.devbuild.inscriptionservice.enums.InscriptionStatus;
 
 import java.util.List;
 
 public interface InscriptionService {
 
-    List<InscriptionDTO> getAllInscriptions();
+    InscriptionPage getInscriptionsPage(InscriptionFilter filter, String cursor, int size);
+    InscriptionPage getArchivedInscriptionsPage(AnneeAcademique anneeAcademique, String cursor, int size);
+    DirecteurInboxResponse getDirecteurInbox(String directeurId, InscriptionStatus status,
+                                             AnneeAcademique anneeAcademique, boolean includeArchives,
+                                             String cursor, int size);
     InscriptionDTO getInscriptionById(String id);
-    InscriptionDTO createInscription(CreateInscriptionRequest request);
+    InscriptionDTO createInscription(CreateInscriptionRequest request, IdempotencyClaim idempotencyClaim);
+    BatchInscriptionResponse createInscriptionsBatch(List<CreateInscriptionRequest> requests);
     InscriptionDTO updateInscription(String id, UpdateInscriptionRequest request);
     void deleteInscription(String id);
     InscriptionDTO validateByDirecteur(String id, ValidateInscriptionRequest request);
     InscriptionDTO validateByAdmin(String id, ValidateInscriptionRequest request);
+    BulkValidationResponse bulkValidateByDirecteur(BulkValidationRequest request);
+    BulkValidationResponse bulkValidateByAdmin(BulkValidationRequest request);
     InscriptionStatusDTO getInscriptionStatus(String id);
+    // Statut de chaque inscription du doctorant (état initial du flux SSE)
+    List<InscriptionStatusDTO> getInscriptionStatusesByDoctorant(String doctorantId);
     List<InscriptionDTO> getInscriptionsByDoctorant(String doctorantId);
+    List<InscriptionDTO> getInscriptionsByDoctorant(String doctorantId, boolean includeArchives);
     List<InscriptionDTO> getInscriptionsByStatus(InscriptionStatus status);
-    InscriptionDTO createReinscription(ReinscriptionRequest request);
+    List<InscriptionDTO> getInscriptionsByStatus(InscriptionStatus status, boolean includeArchives);
+    InscriptionDTO createReinscription(ReinscriptionRequest request, IdempotencyClaim idempotencyClaim);
 }
\ No newline at end of file
@@ -1,33 +1,59 @@
 package com.devbuild.inscriptionservice.services;
 
-import com.devbuild.inscriptionservice.client.UserClient;
+import com.devbuild.inscriptionservice.client.UserIdentityResolver;
+import com.devbuild.inscriptionservice.client.UserServiceUnavailableException;
+import com.devbuild.inscriptionservice.datasource.ReadYourWrites;
 import com.devbuild.inscriptionservice.dto.user.UserDTO;
-import com.devbuild.inscriptionservice.dto.user.UserResponseWrapper;
+import com.devbuild.inscriptionservice.dto.user.UserIdentities;
+import com.devbuild.inscriptionservice.config.PartitioningProperties;
+import com.devbuild.inscriptionservice.model.AnneeCloturee;
 import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+import com.devbuild.inscriptionservice.repository.AnneeClotureeRepository;
 import com.devbuild.inscriptionservice.repository.InscriptionRepository;
-import com.devbuild.inscriptionservice.repository.CampagneRepository;
-import com.devbuild.inscriptionservice.model.Document;
+import com.devbuild.inscriptionservice.repository.DocumentMetadata;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionSpecifications;
+import com.devbuild.inscriptionservice.repository.InscriptionStatusCount;
+import com.devbuild.inscriptionservice.repository.InscriptionStatusView;
 import com.devbuild.inscriptionservice.dto.DocumentInfoDTO;
 
 // Imports originaux
 import com.devbuild.inscriptionservice.dto.*;
 import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionEventType;
 import com.devbuild.inscriptionservice.enums.InscriptionStatus;
 import com.devbuild.inscriptionservice.enums.InscriptionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // <-- CORRECTION ICI
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // AJOUT DES IMPORTS POUR RESILIENCE4J
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 
@@ -36,27 +62,221 @@ import io.github.resilience4j.retry.annotation.Retry;
 @RequiredArgsConstructor
 public class InscriptionServiceImpl implements InscriptionService {
 
+    // Taille maximale d'une page pour les listes paginées
+    private static final int MAX_PAGE_SIZE = 200;
+    // Nombre maximal d'identifiants par clause IN lors du chargement des documents
+    private static final int DOCUMENT_BATCH_SIZE = 1000;
+    // Nombre maximal d'inscriptions par création en masse
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Préfixe des clés ReadYourWrites par doctorant (les autres clés sont des ids d'inscription)
+    private static final String DOCTORANT_KEY_PREFIX = "doctorant:";
+    // Curseur de la première page d'archive : après toutes les dates de création
+    private static final LocalDateTime ARCHIVE_FIRST_PAGE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Statuts dont chaque acteur a la charge ; la table de transitions d'InscriptionStatus
+    // restreint ensuite les statuts cibles possibles
+    private static final Set<InscriptionStatus> DIRECTEUR_ALLOWED_FROM =
+            EnumSet.of(InscriptionStatus.SOUMISE, InscriptionStatus.EN_ATTENTE_DIRECTEUR);
+    private static final Set<InscriptionStatus> ADMIN_ALLOWED_FROM =
+            EnumSet.of(InscriptionStatus.APPROUVEE_DIRECTEUR, InscriptionStatus.EN_ATTENTE_ADMIN);
+
     // 1. Déclaration des dépendances
-    private final UserClient userClient;
+    private final UserIdentityResolver userIdentityResolver;
     private final InscriptionRepository inscriptionRepository;
-    private final CampagneRepository campagneRepository; // <-- AJOUT
+    private final ActiveCampaignIndex activeCampaignIndex;
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InscriptionStatisticsService statisticsService;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final ReadYourWrites readYourWrites;
+    private final AnneeAcademiqueService anneeAcademiqueService;
+    private final AnneeClotureeRepository anneeClotureeRepository;
+    private final PartitioningProperties partitioningProperties;
 
     // Le constructeur est maintenant géré par @RequiredArgsConstructor
 
     @Override
-    @Transactional(readOnly = true) // <-- ANNOTATION TRANSACTIONNELLE
-    public List<InscriptionDTO> getAllInscriptions() {
-        log.info("Récupération de toutes les inscriptions depuis la BDD");
-        return inscriptionRepository.findAll()
-                .stream()
-                .map(this::mapToDTO) // Convertir Entité en DTO
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public InscriptionPage getInscriptionsPage(InscriptionFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.info("Récupération d'une page de {} inscriptions (filtre: {}, curseur: {})", pageSize, filter, cursor);
+
+        Specification<Inscription> filtered = withActiveYears(InscriptionSpecifications.matching(filter), filter);
+        Specification<Inscription> spec = filtered;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            spec = spec.and(InscriptionSpecifications.after(position.getDateCreation(), position.getId()));
+        }
+
+        // On lit une ligne de plus pour savoir s'il existe une page suivante, sans COUNT
+        List<Inscription> rows = findKeyset(spec, pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Inscription> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return InscriptionPage.builder()
+                .items(mapToDTOs(pageRows))
+                .nextCursor(hasNext ? nextCursor(pageRows) : null)
+                .hasNext(hasNext)
+                .approximateTotal(approximateTotal(filter, filtered, cursor))
+                .build();
+    }
+
+    /**
+     * Page d'une année clôturée, lue dans le schéma d'archive. Les documents archivés ne sont pas
+     * relus (liste vide) ; le total est le nombre de dossiers archivés lors de la clôture.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public InscriptionPage getArchivedInscriptionsPage(AnneeAcademique anneeAcademique, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        AnneeCloturee cloture = anneeClotureeRepository.findById(anneeAcademique)
+                .filter(c -> c.getArchiveeLe() != null)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Aucune archive pour l'année " + anneeAcademique.getLabel()));
+        log.info("Récupération d'une page de {} inscriptions archivées ({}, curseur: {})", pageSize, anneeAcademique, cursor);
+
+        KeysetCursor position = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        List<Inscription> rows = inscriptionRepository.findArchivedPage(anneeAcademique.name(),
+                position != null ? position.getDateCreation() : ARCHIVE_FIRST_PAGE,
+                position != null ? position.getId() : "",
+                pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Inscription> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return InscriptionPage.builder()
+                .items(pageRows.stream().map(inscription -> mapToDTO(inscription, List.of())).collect(Collectors.toList()))
+                .nextCursor(hasNext ? nextCursor(pageRows) : null)
+                .hasNext(hasNext)
+                .approximateTotal(cloture.getInscriptions())
+                .build();
+    }
+
+    // Sans année précisée : années actives uniquement (élagage des partitions), sauf includeArchives
+    private Specification<Inscription> withActiveYears(Specification<Inscription> spec, InscriptionFilter filter) {
+        if (filter != null && (filter.getAnneeAcademique() != null || filter.isIncludeArchives())) {
+            return spec;
+        }
+        return spec.and(InscriptionSpecifications.inAnnees(anneeAcademiqueService.getActiveYears()));
+    }
+
+    /**
+     * Dossiers dirigés ou co-dirigés, du plus récent au plus ancien, par curseur.
+     * Deux parcours indexés et triés (directeur_id puis co_directeur_id), fusionnés en mémoire :
+     * un OR sur les deux colonnes empêcherait PostgreSQL de lire l'index dans l'ordre du tri.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DirecteurInboxResponse getDirecteurInbox(String directeurId, InscriptionStatus status,
+                                                    AnneeAcademique anneeAcademique, boolean includeArchives,
+                                                    String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.info("Boîte de réception du directeur {} (statut: {}, année: {}, curseur: {})",
+                directeurId, status, anneeAcademique, cursor);
+
+        InscriptionFilter filter = InscriptionFilter.builder()
+                .status(status)
+                .anneeAcademique(anneeAcademique)
+                .includeArchives(includeArchives)
+                .build();
+        Specification<Inscription> spec = withActiveYears(InscriptionSpecifications.matching(filter), filter);
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            spec = spec.and(InscriptionSpecifications.after(position.getDateCreation(), position.getId()));
+        }
+
+        // Dédoublonnage par id avant tri et découpage : les deux lectures ne partagent pas de snapshot
+        // (READ COMMITTED), un dossier dont le directeur change entre elles apparaîtrait deux fois
+        Map<String, Inscription> byId = new LinkedHashMap<>();
+        findKeyset(spec.and(InscriptionSpecifications.directedBy(directeurId)), pageSize + 1)
+                .forEach(row -> byId.putIfAbsent(row.getId(), row));
+        findKeyset(spec.and(InscriptionSpecifications.coDirectedBy(directeurId)), pageSize + 1)
+                .forEach(row -> byId.putIfAbsent(row.getId(), row));
+        List<Inscription> rows = new ArrayList<>(byId.values());
+        rows.sort(Comparator.comparing(Inscription::getDateCreation).thenComparing(Inscription::getId).reversed());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Inscription> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        List<InscriptionDTO> items = mapToDTOs(pageRows);
+
+        return DirecteurInboxResponse.builder()
+                .success(true)
+                .message("Dossiers du directeur " + directeurId)
+                .directeurId(directeurId)
+                .data(items)
+                .size(items.size())
+                .nextCursor(hasNext ? nextCursor(pageRows) : null)
+                .hasNext(hasNext)
+                .countsByStatus(cursor == null || cursor.isBlank() ? countsByStatus(directeurId, filter) : null)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private List<Inscription> findKeyset(Specification<Inscription> spec, int limit) {
+        return inscriptionRepository.findBy(spec, q -> q
+                .sortBy(InscriptionSpecifications.KEYSET_SORT)
+                .limit(limit)
+                .all());
+    }
+
+    private static String nextCursor(List<Inscription> pageRows) {
+        Inscription last = pageRows.get(pageRows.size() - 1);
+        return new KeysetCursor(last.getDateCreation(), last.getId()).encode();
+    }
+
+    // Tous les statuts présents (0 par défaut) pour afficher des onglets stables
+    private Map<InscriptionStatus, Long> countsByStatus(String directeurId, InscriptionFilter filter) {
+        Map<InscriptionStatus, Long> counts = new EnumMap<>(InscriptionStatus.class);
+        for (InscriptionStatus status : InscriptionStatus.values()) {
+            counts.put(status, 0L);
+        }
+        List<InscriptionStatusCount> rows;
+        if (filter.getAnneeAcademique() != null) {
+            rows = inscriptionRepository.countByStatusForDirecteurAndAnnee(directeurId, filter.getAnneeAcademique());
+        } else if (filter.isIncludeArchives()) {
+            rows = inscriptionRepository.countByStatusForDirecteur(directeurId);
+        } else {
+            rows = inscriptionRepository.countByStatusForDirecteurAndAnneeIn(directeurId, anneeAcademiqueService.getActiveYears());
+        }
+        rows.forEach(row -> counts.put(row.getStatus(), row.getTotal()));
+        return counts;
+    }
+
+    /**
+     * Total approximatif, calculé à coût constant :
+     * - sans filtre : estimation du planificateur PostgreSQL (pg_class.reltuples), de toute la table
+     *   avec includeArchives, sinon des seules partitions des années actives (tables partitionnées) ;
+     * - sinon : COUNT indexé uniquement sur la première page, le client le conserve ensuite.
+     */
+    private Long approximateTotal(InscriptionFilter filter, Specification<Inscription> filtered, String cursor) {
+        boolean unfiltered = filter == null || filter.isEmpty();
+        if (unfiltered && filter != null && filter.isIncludeArchives()) {
+            Long estimate = inscriptionRepository.estimateRowCount();
+            // -1 : table jamais analysée, on retombe sur un comptage exact
+            return (estimate != null && estimate >= 0) ? estimate : inscriptionRepository.count();
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            return null;
+        }
+        if (unfiltered && partitioningProperties.isEnabled()) {
+            Long estimate = inscriptionRepository.estimateRowCountInPartitions(anneeAcademiqueService.getActiveYears()
+                    .stream()
+                    .map(annee -> "inscriptions_" + annee.getPartitionSuffix())
+                    .collect(Collectors.toList()));
+            if (estimate != null && estimate >= 0) {
+                return estimate;
+            }
+        }
+        return inscriptionRepository.count(filtered);
     }
 
     @Override
     @Transactional(readOnly = true) // <-- ANNOTATION TRANSACTIONNELLE
     public InscriptionDTO getInscriptionById(String id) {
         log.info("Recherche de l'inscription: {}", id);
+        readYourWrites.pinIfRecent(id);
         Inscription inscription = getInscriptionEntityById(id);
         return mapToDTO(inscription);
     }
@@ -67,57 +287,65 @@ public class InscriptionServiceImpl implements InscriptionService {
                 .orElseThrow(() -> new RuntimeException("Inscription non trouvée: " + id));
     }
 
+    // Tables partitionnées : l'année est la clé de partitionnement, aucune ligne sans année
+    private void checkAnneeAcademique(AnneeAcademique anneeAcademique) {
+        if (anneeAcademique == null && partitioningProperties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "anneeAcademique est obligatoire");
+        }
+    }
+
     /**
      * AJOUT D'UNE MÉTHODE DE VÉRIFICATION
      * Vérifie si une campagne est active pour le type d'inscription demandé.
      * Lève une exception si aucune campagne n'est trouvée.
+     * Répond depuis l'index en mémoire (aucune requête SQL dans le cas courant).
      */
     private void checkActiveCampaign(InscriptionType type) {
         log.info("Vérification de campagne active pour le type: {}", type);
-        campagneRepository.findActiveCampaign(type, LocalDateTime.now())
-                .orElseThrow(() -> new RuntimeException("Aucune campagne active n'est disponible pour " + type));
+        if (!activeCampaignIndex.isOpen(type, LocalDateTime.now())) {
+            throw new RuntimeException("Aucune campagne active n'est disponible pour " + type);
+        }
     }
 
 
+    /**
+     * Pas de @Transactional ici : l'appel à user-service et ses tentatives (Retry/CircuitBreaker)
+     * s'exécutent sans connexion JDBC. Seule l'insertion finale ouvre une transaction courte.
+     * idempotencyClaim (facultatif) : clé réservée par le contrôleur, complétée avec l'insertion.
+     */
     @Override
-    @Transactional // <-- ANNOTATION TRANSACTIONNELLE
     // AJOUT : Annotations Resilience4J
     @CircuitBreaker(name = "userServiceCB", fallbackMethod = "fallbackCreateInscription")
     @Retry(name = "userServiceRetry")
-    public InscriptionDTO createInscription(CreateInscriptionRequest request) {
+    public InscriptionDTO createInscription(CreateInscriptionRequest request, IdempotencyClaim idempotencyClaim) {
         // VÉRIFICATION DE LA CAMPAGNE
         checkActiveCampaign(request.getType());
+        checkAnneeAcademique(request.getAnneeAcademique());
 
         log.info("Création d'une nouvelle inscription pour: {}", request.getDoctorantId());
 
-        // --- Logique Feign (inchangée) ---
-        String doctorantName = "Doctorant (non trouvé)";
-        String doctorantEmail = "email@inconnu.ma";
+        // --- Logique Feign (via le cache local des utilisateurs) ---
+        // Doctorant, directeur et co-directeur résolus en parallèle
+        UserIdentities identities;
         try {
-            UserResponseWrapper userResponse = userClient.getUserById(request.getDoctorantId());
-            if (userResponse != null && userResponse.isSuccess()) {
-                UserDTO user = userResponse.getData();
-                doctorantName = user.getFirstName() + " " + user.getLastName();
-                doctorantEmail = user.getEmail();
-                log.info("Informations utilisateur récupérées via Feign: {}", doctorantName);
-            } else {
-                log.warn("Réponse invalide du user-service pour l'ID: {}", request.getDoctorantId());
-            }
+            identities = userIdentityResolver.resolve(
+                    request.getDoctorantId(), request.getDirecteurId(), request.getCoDirecteurId());
+            log.info("Informations utilisateur récupérées: {}", identities.getDoctorantName());
         } catch (Exception e) {
             log.error("Impossible de récupérer l'utilisateur via Feign: {}", e.getMessage());
             // Important : Relancer l'exception pour que Retry et CircuitBreaker la détectent
-            throw new RuntimeException("User-service inaccessible: " + e.getMessage(), e);
+            throw new UserServiceUnavailableException("User-service inaccessible: " + e.getMessage(), e);
         }
         // --- Fin Feign ---
 
         // Construire l'ENTITÉ Inscription
+        // Sans id assigné : persist() direct, sans SELECT préalable de merge()
         Inscription newInscription = Inscription.builder()
-                .id(UUID.randomUUID().toString()) // JPA peut le générer si vous préférez
                 .doctorantId(request.getDoctorantId())
-                .doctorantEmail(doctorantEmail)
-                .doctorantName(doctorantName)
+                .doctorantEmail(identities.getDoctorantEmail())
+                .doctorantName(identities.getDoctorantName())
                 .directeurId(request.getDirecteurId())
-                .directeurName("Directeur " + request.getDirecteurId()) // TODO: Appeler Feign pour le directeur
+                .directeurName(identities.getDirecteurName())
                 .type(request.getType())
                 .status(InscriptionStatus.SOUMISE)
                 .anneeAcademique(request.getAnneeAcademique())
@@ -125,30 +353,175 @@ public class InscriptionServiceImpl implements InscriptionService {
                 .laboratoire(request.getLaboratoire())
                 .specialite(request.getSpecialite())
                 .coDirecteurId(request.getCoDirecteurId())
+                .coDirecteurName(identities.getCoDirecteurName())
                 // dateCreation et dateModification gérées par @...Timestamp
                 .build();
 
-        // Sauvegarder l'ENTITÉ dans la BDD
-        Inscription savedInscription = inscriptionRepository.save(newInscription);
+        // Sauvegarder l'ENTITÉ dans la BDD (transaction courte : insertion, compteur, outbox)
+        Inscription savedInscription = insertNewInscription(newInscription, idempotencyClaim);
 
         log.info("Inscription créée: {}", savedInscription.getId());
-        return mapToDTO(savedInscription); // Retourner le DTO
+        // Inscription neuve : aucun document à charger
+        return mapToDTO(savedInscription, new ArrayList<>()); // Retourner le DTO
+    }
+
+    private Inscription insertNewInscription(Inscription newInscription, IdempotencyClaim idempotencyClaim) {
+        return transactionTemplate.execute(status -> {
+            Inscription saved = inscriptionRepository.save(newInscription);
+            statisticsService.increment(InscriptionStatisticId.of(saved));
+            outboxService.append(eventOf(saved, InscriptionEventType.INSCRIPTION_SOUMISE, null, null));
+            recordWrite(saved.getId(), saved.getDoctorantId());
+            if (idempotencyClaim != null) {
+                idempotencyService.complete(idempotencyClaim, saved.getId());
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Création en masse (import d'une promotion par un laboratoire).
+     * - une seule vérification de campagne par type présent dans le lot ;
+     * - les utilisateurs distincts (doctorants, directeurs, co-directeurs) sont résolus en parallèle
+     *   (pool borné, cache local), hors transaction ;
+     * - les insertions partent en une transaction, regroupées par Hibernate en batchs JDBC
+     *   (hibernate.jdbc.batch_size / order_inserts) ;
+     * - un résultat par élément, dans l'ordre de la requête.
+     */
+    @Override
+    public BatchInscriptionResponse createInscriptionsBatch(List<CreateInscriptionRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Un lot ne peut pas dépasser " + MAX_BATCH_SIZE + " inscriptions");
+        }
+        long start = System.nanoTime();
+        log.info("Création en masse de {} inscriptions", requests.size());
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+
+        // 1. Campagnes : une vérification par type
+        Map<InscriptionType, Boolean> openByType = new EnumMap<>(InscriptionType.class);
+        for (CreateInscriptionRequest request : requests) {
+            if (request.getType() != null) {
+                openByType.computeIfAbsent(request.getType(), type -> activeCampaignIndex.isOpen(type, LocalDateTime.now()));
+            }
+        }
+
+        // 2. Utilisateurs distincts, résolus en parallèle avec le même délai qu'une création unitaire :
+        //    une recherche trop lente fait échouer (doctorant) ou replier (directeurs) ses seuls éléments
+        Map<String, CompletableFuture<Optional<UserDTO>>> users = new HashMap<>();
+        for (CreateInscriptionRequest request : requests) {
+            for (String id : new String[]{request.getDoctorantId(), request.getDirecteurId(), request.getCoDirecteurId()}) {
+                if (id != null) {
+                    users.computeIfAbsent(id, userIdentityResolver::boundedLookup);
+                }
+            }
+        }
+
+        // 3. Construction des entités valides
+        List<Inscription> toInsert = new ArrayList<>();
+        List<Integer> insertedIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateInscriptionRequest request = requests.get(i);
+            String error = validateBatchItem(request, openByType);
+            UserIdentities identities = null;
+            if (error == null) {
+                try {
+                    identities = userIdentityResolver.combine(request.getDoctorantId(), request.getDirecteurId(),
+                            request.getCoDirecteurId(), users);
+                } catch (RuntimeException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.builder().index(i).success(false).error(error).build();
+                continue;
+            }
+            toInsert.add(Inscription.builder()
+                    // Pas d'id assigné : persist() direct (sans SELECT préalable) et insertions groupées
+                    .doctorantId(request.getDoctorantId())
+                    .doctorantName(identities.getDoctorantName())
+                    .doctorantEmail(identities.getDoctorantEmail())
+                    .directeurId(request.getDirecteurId())
+                    .directeurName(identities.getDirecteurName())
+                    .type(request.getType())
+                    .status(InscriptionStatus.SOUMISE)
+                    .anneeAcademique(request.getAnneeAcademique())
+                    .sujetThese(request.getSujetThese())
+                    .laboratoire(request.getLaboratoire())
+                    .specialite(request.getSpecialite())
+                    .coDirecteurId(request.getCoDirecteurId())
+                    .coDirecteurName(identities.getCoDirecteurName())
+                    .build());
+            insertedIndexes.add(i);
+        }
+
+        // 4. Insertion groupée dans une seule transaction
+        List<Inscription> saved = toInsert.isEmpty() ? List.of()
+                : transactionTemplate.execute(status -> {
+                    List<Inscription> inserted = inscriptionRepository.saveAll(toInsert);
+                    statisticsService.applyDeltas(inserted.stream().collect(
+                            Collectors.groupingBy(InscriptionStatisticId::of, Collectors.counting())));
+                    outboxService.append(inserted.stream()
+                            .map(inscription -> eventOf(inscription, InscriptionEventType.INSCRIPTION_SOUMISE, null, null))
+                            .collect(Collectors.toList()));
+                    inserted.forEach(inscription -> recordWrite(inscription.getId(), inscription.getDoctorantId()));
+                    return inserted;
+                });
+        for (int k = 0; k < saved.size(); k++) {
+            int index = insertedIndexes.get(k);
+            results[index] = BatchItemResult.builder().index(index).success(true).id(saved.get(k).getId()).build();
+        }
+
+        long durationMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double itemsPerSecond = requests.size() * 1000.0 / durationMs;
+        log.info("Lot traité: {} créées, {} en échec, {} ms ({} inscriptions/s)",
+                saved.size(), requests.size() - saved.size(), durationMs, String.format("%.1f", itemsPerSecond));
+
+        return BatchInscriptionResponse.builder()
+                .success(saved.size() == requests.size())
+                .message(saved.size() + "/" + requests.size() + " inscriptions créées")
+                .total(requests.size())
+                .created(saved.size())
+                .failed(requests.size() - saved.size())
+                .results(Arrays.asList(results))
+                .durationMs(durationMs)
+                .itemsPerSecond(itemsPerSecond)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private String validateBatchItem(CreateInscriptionRequest request, Map<InscriptionType, Boolean> openByType) {
+        if (request.getDoctorantId() == null || request.getDirecteurId() == null || request.getType() == null) {
+            return "doctorantId, directeurId et type sont obligatoires";
+        }
+        if (request.getAnneeAcademique() == null && partitioningProperties.isEnabled()) {
+            return "anneeAcademique est obligatoire";
+        }
+        if (!openByType.getOrDefault(request.getType(), false)) {
+            return "Aucune campagne active n'est disponible pour " + request.getType();
+        }
+        return null;
     }
 
     /**
      * AJOUT : Méthode de Fallback pour createInscription.
      * Appelée par Resilience4J lorsque le Circuit Breaker est ouvert.
      *
-     * @param request La requête originale
-     * @param ex      L'exception qui a causé la panne
+     * @param request          La requête originale
+     * @param idempotencyClaim La clé d'idempotence réservée (ou null)
+     * @param ex               L'exception qui a causé la panne
      * @return Un DTO d'inscription avec des valeurs par défaut
      */
-    public InscriptionDTO fallbackCreateInscription(CreateInscriptionRequest request, Exception ex) {
+    public InscriptionDTO fallbackCreateInscription(CreateInscriptionRequest request, IdempotencyClaim idempotencyClaim,
+                                                    Exception ex) {
+        // Erreurs du client (campagne fermée, année manquante) ou de la base : pas de mode dégradé
+        if (!(ex instanceof UserServiceUnavailableException) && !(ex instanceof CallNotPermittedException)) {
+            throw ex instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex);
+        }
         log.warn("Circuit Breaker OPEN - Fallback activé pour createInscription. Cause: {}", ex.getMessage());
 
         // Créer une réponse partielle sans appeler le user-service
         Inscription newInscription = Inscription.builder()
-                .id(UUID.randomUUID().toString())
                 .doctorantId(request.getDoctorantId())
                 .doctorantEmail("email@inconnu.ma") // Valeur par défaut
                 .doctorantName("Doctorant (Service indisponible)") // Valeur par défaut
@@ -163,10 +536,10 @@ public class InscriptionServiceImpl implements InscriptionService {
                 .coDirecteurId(request.getCoDirecteurId())
                 .build();
 
-        Inscription savedInscription = inscriptionRepository.save(newInscription);
+        Inscription savedInscription = insertNewInscription(newInscription, idempotencyClaim);
         log.warn("Inscription {} créée en mode fallback (dégradé).", savedInscription.getId());
 
-        return mapToDTO(savedInscription);
+        return mapToDTO(savedInscription, new ArrayList<>());
     }
 
 
@@ -176,6 +549,7 @@ public class InscriptionServiceImpl implements InscriptionService {
         log.info("Mise à jour de l'inscription: {}", id);
 
         Inscription inscription = getInscriptionEntityById(id); // Récupère l'entité
+        InscriptionStatisticId previousGroup = InscriptionStatisticId.of(inscription);
 
         if (request.getSujetThese() != null) {
             inscription.setSujetThese(request.getSujetThese());
@@ -192,6 +566,9 @@ public class InscriptionServiceImpl implements InscriptionService {
         // dateModification sera mise à jour automatiquement par @UpdateTimestamp
 
         Inscription updatedInscription = inscriptionRepository.save(inscription);
+        // Le laboratoire fait partie du groupe statistique
+        statisticsService.move(previousGroup, InscriptionStatisticId.of(updatedInscription));
+        recordWrite(id, updatedInscription.getDoctorantId());
 
         log.info("Inscription mise à jour: {}", id);
         return mapToDTO(updatedInscription);
@@ -201,31 +578,47 @@ public class InscriptionServiceImpl implements InscriptionService {
     @Transactional // <-- ANNOTATION TRANSACTIONNELLE
     public void deleteInscription(String id) {
         log.info("Suppression de l'inscription: {}", id);
-        if (!inscriptionRepository.existsById(id)) {
-            throw new RuntimeException("Inscription non trouvée: " + id);
-        }
-        inscriptionRepository.deleteById(id);
+        Inscription inscription = getInscriptionEntityById(id);
+        inscriptionRepository.delete(inscription);
+        statisticsService.decrement(InscriptionStatisticId.of(inscription));
+        recordWrite(id, inscription.getDoctorantId());
         log.info("Inscription supprimée: {}", id);
     }
 
+    /**
+     * La transition est écrite par une seule instruction (compare-and-set sur statut, version et bail),
+     * qui renvoie la ligne d'origine : ni SELECT préalable, ni SELECT ... FOR UPDATE, ni dirty checking.
+     * Deux décisions concurrentes sur le même dossier : la seconde modifie 0 ligne et reçoit un 409,
+     * sans nouvel essai côté serveur ; le dossier n'est relu que pour expliquer ce refus.
+     * Un dossier réservé par un autre relecteur (file de traitement) est refusé tant que son bail court ;
+     * la décision libère le bail.
+     */
     @Override
     @Transactional // <-- ANNOTATION TRANSACTIONNELLE
     public InscriptionDTO validateByDirecteur(String id, ValidateInscriptionRequest request) {
         log.info("Validation par directeur: {} - Approuvé: {}", id, request.isApproved());
 
-        Inscription inscription = getInscriptionEntityById(id);
+        InscriptionStatus target = request.isApproved() ? InscriptionStatus.APPROUVEE_DIRECTEUR : InscriptionStatus.REJETEE;
+        Set<InscriptionStatus> sources = InscriptionStatus.sourcesOf(target, DIRECTEUR_ALLOWED_FROM);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Inscription> previous = sources.isEmpty() ? Optional.empty()
+                : inscriptionRepository.transitionByDirecteur(id, sources, request.getExpectedVersion(),
+                        request.getReviewerId(), target, request.getCommentaire(), now);
+        Inscription inscription = previous.orElseThrow(() -> refusal(id, DIRECTEUR_ALLOWED_FROM, target, request, now));
+        InscriptionStatisticId previousGroup = InscriptionStatisticId.of(inscription);
+        InscriptionStatus previousStatus = inscription.getStatus();
 
-        if (request.isApproved()) {
-            inscription.setStatus(InscriptionStatus.APPROUVEE_DIRECTEUR);
-            inscription.setCommentaireDirecteur(request.getCommentaire());
-        } else {
-            inscription.setStatus(InscriptionStatus.REJETEE);
-            inscription.setCommentaireDirecteur(request.getCommentaire());
-        }
+        // Ligne d'origine détachée : on y reporte les valeurs écrites pour la réponse
+        inscription.setStatus(target);
+        inscription.setCommentaireDirecteur(request.getCommentaire());
+        applyWrite(inscription, now);
 
-        Inscription updatedInscription = inscriptionRepository.save(inscription);
-        log.info("Statut mis à jour: {}", updatedInscription.getStatus());
-        return mapToDTO(updatedInscription);
+        statisticsService.move(previousGroup, InscriptionStatisticId.of(inscription));
+        recordWrite(id, inscription.getDoctorantId());
+        outboxService.append(eventOf(inscription, InscriptionEventType.DECISION_DIRECTEUR,
+                previousStatus, request.getCommentaire()));
+        log.info("Statut mis à jour: {}", inscription.getStatus());
+        return mapToDTO(inscription);
     }
 
     @Override
@@ -233,112 +626,392 @@ public class InscriptionServiceImpl implements InscriptionService {
     public InscriptionDTO validateByAdmin(String id, ValidateInscriptionRequest request) {
         log.info("Validation par admin: {} - Approuvé: {}", id, request.isApproved());
 
-        Inscription inscription = getInscriptionEntityById(id);
+        InscriptionStatus target = request.isApproved() ? InscriptionStatus.VALIDEE : InscriptionStatus.REJETEE;
+        Set<InscriptionStatus> sources = InscriptionStatus.sourcesOf(target, ADMIN_ALLOWED_FROM);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Inscription> previous = sources.isEmpty() ? Optional.empty()
+                : inscriptionRepository.transitionByAdmin(id, sources, request.getExpectedVersion(),
+                        request.getReviewerId(), target, request.getCommentaire(), now);
+        Inscription inscription = previous.orElseThrow(() -> refusal(id, ADMIN_ALLOWED_FROM, target, request, now));
+        InscriptionStatisticId previousGroup = InscriptionStatisticId.of(inscription);
+        InscriptionStatus previousStatus = inscription.getStatus();
 
-        if (request.isApproved()) {
-            inscription.setStatus(InscriptionStatus.VALIDEE);
-            inscription.setCommentaireAdmin(request.getCommentaire());
-            inscription.setDateValidation(LocalDateTime.now());
-        } else {
-            inscription.setStatus(InscriptionStatus.REJETEE);
-            inscription.setCommentaireAdmin(request.getCommentaire());
+        inscription.setStatus(target);
+        inscription.setCommentaireAdmin(request.getCommentaire());
+        if (target == InscriptionStatus.VALIDEE) {
+            inscription.setDateValidation(now);
         }
+        applyWrite(inscription, now);
 
-        Inscription updatedInscription = inscriptionRepository.save(inscription);
-        log.info("Statut mis à jour: {}", updatedInscription.getStatus());
-        return mapToDTO(updatedInscription);
+        statisticsService.move(previousGroup, InscriptionStatisticId.of(inscription));
+        recordWrite(id, inscription.getDoctorantId());
+        outboxService.append(eventOf(inscription, InscriptionEventType.DECISION_ADMIN,
+                previousStatus, request.getCommentaire()));
+        log.info("Statut mis à jour: {}", inscription.getStatus());
+        return mapToDTO(inscription);
+    }
+
+    // Compare-and-set refusé : relecture du dossier pour en donner la raison (404, transition, version, bail)
+    private ResponseStatusException refusal(String id, Set<InscriptionStatus> actorScope, InscriptionStatus target,
+                                            ValidateInscriptionRequest request, LocalDateTime now) {
+        Inscription current = getInscriptionEntityById(id);
+        checkTransition(current, actorScope, target, request.getExpectedVersion());
+        checkLease(current, request.getReviewerId(), now);
+        // Modifié entre l'instruction et la relecture
+        return concurrentModification(id);
+    }
+
+    // Vérifie la transition demandée sur l'état lu
+    private void checkTransition(Inscription inscription, Set<InscriptionStatus> actorScope,
+                                 InscriptionStatus target, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(inscription.getVersion())) {
+            throw concurrentModification(inscription.getId());
+        }
+        InscriptionStatus current = inscription.getStatus();
+        if (!actorScope.contains(current) || !current.canTransitionTo(target)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Transition " + current + " -> " + target + " non autorisée pour l'inscription " + inscription.getId());
+        }
+    }
+
+    // 409 si un autre relecteur détient un bail actif sur le dossier
+    private static void checkLease(Inscription inscription, String reviewerId, LocalDateTime now) {
+        if (leasedByOther(inscription.getLeaseOwner(), inscription.getLeaseExpiresAt(), reviewerId, now)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "L'inscription " + inscription.getId()
+                    + " est réservée par " + inscription.getLeaseOwner() + " jusqu'à " + inscription.getLeaseExpiresAt());
+        }
+    }
+
+    private static boolean leasedByOther(String leaseOwner, LocalDateTime leaseExpiresAt, String reviewerId,
+                                         LocalDateTime now) {
+        return leaseOwner != null && !leaseExpiresAt.isBefore(now) && !leaseOwner.equals(reviewerId);
+    }
+
+    private static void applyWrite(Inscription inscription, LocalDateTime now) {
+        inscription.setDateModification(now);
+        inscription.setVersion(inscription.getVersion() + 1);
+        // Libéré par la transition
+        inscription.setLeaseOwner(null);
+        inscription.setLeaseExpiresAt(null);
+    }
+
+    private static ResponseStatusException concurrentModification(String id) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "L'inscription " + id + " a été modifiée entre-temps, rechargez-la avant de réessayer");
+    }
+
+    /**
+     * Validation en masse par le directeur : les lignes éligibles sont verrouillées en une requête,
+     * puis modifiées par un seul UPDATE conditionnel (WHERE id IN (...) AND status IN (statuts autorisés)).
+     */
+    @Override
+    @Transactional
+    public BulkValidationResponse bulkValidateByDirecteur(BulkValidationRequest request) {
+        InscriptionStatus target = request.isApproved() ? InscriptionStatus.APPROUVEE_DIRECTEUR : InscriptionStatus.REJETEE;
+        List<String> ids = distinctIds(request);
+        log.info("Validation directeur en masse de {} inscriptions -> {}", ids.size(), target);
+
+        Set<InscriptionStatus> allowed = InscriptionStatus.sourcesOf(target, DIRECTEUR_ALLOWED_FROM);
+        LocalDateTime now = LocalDateTime.now();
+        List<InscriptionStatusView> candidates = inscriptionRepository.lockTransitionCandidates(ids, allowed,
+                request.getReviewerId(), now);
+        if (!candidates.isEmpty()) {
+            inscriptionRepository.bulkTransitionByDirecteur(idsOf(candidates), allowed, target,
+                    request.getCommentaire(), now);
+        }
+        recordBulkTransition(candidates, target, InscriptionEventType.DECISION_DIRECTEUR, request.getCommentaire());
+        return bulkResult(ids, candidates, allowed, target, request.getReviewerId(), now);
+    }
+
+    /**
+     * Validation administrative en masse ; dateValidation est positionnée dans la même instruction.
+     */
+    @Override
+    @Transactional
+    public BulkValidationResponse bulkValidateByAdmin(BulkValidationRequest request) {
+        InscriptionStatus target = request.isApproved() ? InscriptionStatus.VALIDEE : InscriptionStatus.REJETEE;
+        List<String> ids = distinctIds(request);
+        log.info("Validation admin en masse de {} inscriptions -> {}", ids.size(), target);
+
+        Set<InscriptionStatus> allowed = InscriptionStatus.sourcesOf(target, ADMIN_ALLOWED_FROM);
+        LocalDateTime now = LocalDateTime.now();
+        List<InscriptionStatusView> candidates = inscriptionRepository.lockTransitionCandidates(ids, allowed,
+                request.getReviewerId(), now);
+        if (!candidates.isEmpty()) {
+            inscriptionRepository.bulkTransitionByAdmin(idsOf(candidates), allowed, target,
+                    request.getCommentaire(), now);
+        }
+        recordBulkTransition(candidates, target, InscriptionEventType.DECISION_ADMIN, request.getCommentaire());
+        return bulkResult(ids, candidates, allowed, target, request.getReviewerId(), now);
+    }
+
+    private static List<String> idsOf(List<InscriptionStatusView> views) {
+        return views.stream().map(InscriptionStatusView::getId).collect(Collectors.toList());
+    }
+
+    private List<String> distinctIds(BulkValidationRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La liste des ids est vide");
+        }
+        List<String> ids = request.getIds().stream().distinct().collect(Collectors.toList());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Un lot ne peut pas dépasser " + MAX_BATCH_SIZE + " inscriptions");
+        }
+        return ids;
+    }
+
+    // Reporte une transition en masse sur les compteurs statistiques et dans l'outbox
+    private void recordBulkTransition(List<InscriptionStatusView> candidates, InscriptionStatus target,
+                                      InscriptionEventType eventType, String commentaire) {
+        Map<InscriptionStatisticId, Long> deltas = new HashMap<>();
+        List<InscriptionEvent> events = new ArrayList<>(candidates.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (InscriptionStatusView row : candidates) {
+            String annee = row.getAnneeAcademique() != null ? row.getAnneeAcademique().name() : InscriptionStatisticId.NONE;
+            String laboratoire = row.getLaboratoire() != null ? row.getLaboratoire() : InscriptionStatisticId.NONE;
+            deltas.merge(new InscriptionStatisticId(row.getStatus(), annee, row.getType(), laboratoire), -1L, Long::sum);
+            deltas.merge(new InscriptionStatisticId(target, annee, row.getType(), laboratoire), 1L, Long::sum);
+            recordWrite(row.getId(), row.getDoctorantId());
+            events.add(InscriptionEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .eventType(eventType)
+                    .inscriptionId(row.getId())
+                    .doctorantId(row.getDoctorantId())
+                    .directeurId(row.getDirecteurId())
+                    .type(row.getType())
+                    .anneeAcademique(row.getAnneeAcademique())
+                    .previousStatus(row.getStatus())
+                    .status(target)
+                    .commentaire(commentaire)
+                    .occurredAt(now)
+                    .build());
+        }
+        statisticsService.applyDeltas(deltas);
+        outboxService.append(events);
+    }
+
+    // Distingue les lignes réellement modifiées des ids ignorés (inexistants, mauvais statut ou réservés)
+    private BulkValidationResponse bulkResult(List<String> ids, List<InscriptionStatusView> candidates,
+                                              Set<InscriptionStatus> allowedFrom, InscriptionStatus target,
+                                              String reviewerId, LocalDateTime now) {
+        List<String> updated = idsOf(candidates);
+        Set<String> updatedSet = new HashSet<>(updated);
+        List<String> notUpdated = ids.stream().filter(id -> !updatedSet.contains(id)).collect(Collectors.toList());
+
+        List<SkippedInscription> skipped = new ArrayList<>();
+        if (!notUpdated.isEmpty()) {
+            Map<String, InscriptionStatusView> current = inscriptionRepository.findStatusByIdIn(notUpdated).stream()
+                    .collect(Collectors.toMap(InscriptionStatusView::getId, Function.identity()));
+            for (String id : notUpdated) {
+                InscriptionStatusView view = current.get(id);
+                String reason;
+                if (view == null) {
+                    reason = "Inscription non trouvée";
+                } else if (!allowedFrom.contains(view.getStatus())) {
+                    reason = "Statut " + view.getStatus() + " incompatible (attendu: " + allowedFrom + ")";
+                } else if (leasedByOther(view.getLeaseOwner(), view.getLeaseExpiresAt(), reviewerId, now)) {
+                    reason = "Réservée par " + view.getLeaseOwner() + " jusqu'à " + view.getLeaseExpiresAt();
+                } else {
+                    reason = "Modifiée pendant la validation";
+                }
+                skipped.add(SkippedInscription.builder()
+                        .id(id)
+                        .currentStatus(view != null ? view.getStatus() : null)
+                        .reason(reason)
+                        .build());
+            }
+        }
+        log.info("Validation en masse -> {}: {} modifiées, {} ignorées", target, updated.size(), skipped.size());
+
+        return BulkValidationResponse.builder()
+                .success(skipped.isEmpty())
+                .message(updated.size() + "/" + ids.size() + " inscriptions passées au statut " + target)
+                .targetStatus(target)
+                .updated(updated)
+                .skipped(skipped)
+                .timestamp(LocalDateTime.now())
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true) // <-- ANNOTATION TRANSACTIONNELLE
     public InscriptionStatusDTO getInscriptionStatus(String id) {
         log.info("Récupération du statut: {}", id);
+        readYourWrites.pinIfRecent(id);
         Inscription inscription = getInscriptionEntityById(id);
 
         return InscriptionStatusDTO.builder()
                 .id(id)
                 .status(inscription.getStatus())
-                .message(getStatusMessage(inscription.getStatus()))
+                .message(statusMessage(inscription.getStatus()))
                 .lastUpdate(inscription.getDateModification())
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<InscriptionStatusDTO> getInscriptionStatusesByDoctorant(String doctorantId) {
+        readYourWrites.pinIfRecent(DOCTORANT_KEY_PREFIX + doctorantId);
+        return inscriptionRepository.findByDoctorantIdAndAnneeAcademiqueIn(doctorantId, anneeAcademiqueService.getActiveYears())
+                .stream()
+                .map(inscription -> InscriptionStatusDTO.builder()
+                        .id(inscription.getId())
+                        .status(inscription.getStatus())
+                        .message(statusMessage(inscription.getStatus()))
+                        .lastUpdate(inscription.getDateModification())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true) // <-- ANNOTATION TRANSACTIONNELLE
     public List<InscriptionDTO> getInscriptionsByDoctorant(String doctorantId) {
-        log.info("Recherche des inscriptions du doctorant: {}", doctorantId);
+        return getInscriptionsByDoctorant(doctorantId, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InscriptionDTO> getInscriptionsByDoctorant(String doctorantId, boolean includeArchives) {
+        log.info("Recherche des inscriptions du doctorant: {} (archives: {})", doctorantId, includeArchives);
+        readYourWrites.pinIfRecent(DOCTORANT_KEY_PREFIX + doctorantId);
         // Utilise la méthode du repository
-        return inscriptionRepository.findByDoctorantId(doctorantId)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(includeArchives
+                ? inscriptionRepository.findByDoctorantId(doctorantId)
+                : inscriptionRepository.findByDoctorantIdAndAnneeAcademiqueIn(doctorantId, anneeAcademiqueService.getActiveYears()));
     }
 
     @Override
     @Transactional(readOnly = true) // <-- ANNOTATION TRANSACTIONNELLE
     public List<InscriptionDTO> getInscriptionsByStatus(InscriptionStatus status) {
-        log.info("Recherche des inscriptions avec statut: {}", status);
+        return getInscriptionsByStatus(status, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InscriptionDTO> getInscriptionsByStatus(InscriptionStatus status, boolean includeArchives) {
+        log.info("Recherche des inscriptions avec statut: {} (archives: {})", status, includeArchives);
         // Utilise la méthode du repository
-        return inscriptionRepository.findByStatus(status)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(includeArchives
+                ? inscriptionRepository.findByStatus(status)
+                : inscriptionRepository.findByStatusAndAnneeAcademiqueIn(status, anneeAcademiqueService.getActiveYears()));
     }
 
     @Override
     @Transactional // <-- ANNOTATION TRANSACTIONNELLE
-    public InscriptionDTO createReinscription(ReinscriptionRequest request) {
+    public InscriptionDTO createReinscription(ReinscriptionRequest request, IdempotencyClaim idempotencyClaim) {
         // VÉRIFICATION DE LA CAMPAGNE
         checkActiveCampaign(InscriptionType.REINSCRIPTION);
+        checkAnneeAcademique(request.getNouvelleAnnee());
 
         log.info("Création d'une réinscription pour: {}", request.getDoctorantId());
 
         Inscription previousInscription = getInscriptionEntityById(request.getPreviousInscriptionId());
 
-        Inscription reinscription = Inscription.builder()
-                .id(UUID.randomUUID().toString())
-                .doctorantId(request.getDoctorantId())
+        Inscription reinscription = reinscriptionOf(previousInscription, request.getDoctorantId(),
+                request.getNouvelleAnnee(), request.getSujetTheseMisAJour());
+
+        Inscription savedReinscription = inscriptionRepository.save(reinscription);
+        statisticsService.increment(InscriptionStatisticId.of(savedReinscription));
+        outboxService.append(eventOf(savedReinscription, InscriptionEventType.REINSCRIPTION_SOUMISE, null, null));
+        recordWrite(savedReinscription.getId(), savedReinscription.getDoctorantId());
+        if (idempotencyClaim != null) {
+            idempotencyService.complete(idempotencyClaim, savedReinscription.getId());
+        }
+        log.info("Réinscription créée: {}", savedReinscription.getId());
+        return mapToDTO(savedReinscription);
+    }
+
+    // --- Méthodes privées (Helpers) ---
+
+    // Lectures suivantes de cette inscription / de ce doctorant servies par la base principale (ReadYourWrites)
+    private void recordWrite(String inscriptionId, String doctorantId) {
+        readYourWrites.recordWrite(inscriptionId);
+        readYourWrites.recordWrite(DOCTORANT_KEY_PREFIX + doctorantId);
+    }
+
+    /**
+     * Réinscription SOUMISE reprenant le dossier précédent (aussi utilisée par le job de réinscription).
+     * Id généré par JPA : merge() d'une entité à id assigné mais inexistante est refusé par Hibernate 6.6.
+     */
+    static Inscription reinscriptionOf(Inscription previousInscription, String doctorantId,
+                                       AnneeAcademique nouvelleAnnee, String sujetTheseMisAJour) {
+        return Inscription.builder()
+                .doctorantId(doctorantId)
                 .doctorantEmail(previousInscription.getDoctorantEmail())
                 .doctorantName(previousInscription.getDoctorantName())
                 .directeurId(previousInscription.getDirecteurId())
                 .directeurName(previousInscription.getDirecteurName())
                 .type(InscriptionType.REINSCRIPTION)
                 .status(InscriptionStatus.SOUMISE)
-                .anneeAcademique(request.getNouvelleAnnee())
-                .sujetThese(request.getSujetTheseMisAJour() != null ?
-                        request.getSujetTheseMisAJour() : previousInscription.getSujetThese())
+                .anneeAcademique(nouvelleAnnee)
+                .sujetThese(sujetTheseMisAJour != null ? sujetTheseMisAJour : previousInscription.getSujetThese())
                 .laboratoire(previousInscription.getLaboratoire())
                 .specialite(previousInscription.getSpecialite())
                 .coDirecteurId(previousInscription.getCoDirecteurId())
                 .build();
-
-        Inscription savedReinscription = inscriptionRepository.save(reinscription);
-        log.info("Réinscription créée: {}", savedReinscription.getId());
-        return mapToDTO(savedReinscription);
     }
 
-    // --- Méthodes privées (Helpers) ---
+    // Événement de workflow à écrire dans l'outbox, dans la transaction de la transition
+    static InscriptionEvent eventOf(Inscription inscription, InscriptionEventType eventType,
+                                    InscriptionStatus previousStatus, String commentaire) {
+        return InscriptionEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .inscriptionId(inscription.getId())
+                .doctorantId(inscription.getDoctorantId())
+                .directeurId(inscription.getDirecteurId())
+                .type(inscription.getType())
+                .anneeAcademique(inscription.getAnneeAcademique())
+                .previousStatus(previousStatus)
+                .status(inscription.getStatus())
+                .commentaire(commentaire)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
 
     // Convertit une Entité Inscription en InscriptionDTO
     private InscriptionDTO mapToDTO(Inscription inscription) {
+        return mapToDTOs(List.of(inscription)).get(0);
+    }
 
-        List<DocumentInfoDTO> documentInfos = new ArrayList<>();
-        // Cette ligne est maintenant sûre car la méthode appelante est @Transactional
-        try {
-            if (inscription.getDocuments() != null) {
-                documentInfos = inscription.getDocuments().stream()
-                        .map(doc -> DocumentInfoDTO.builder()
+    /**
+     * Convertit une liste d'inscriptions en DTO avec un nombre de requêtes constant :
+     * les métadonnées des documents sont chargées par lots (IN), jamais via la
+     * collection LAZY "documents" (qui déclencherait un SELECT par inscription).
+     */
+    private List<InscriptionDTO> mapToDTOs(List<Inscription> inscriptions) {
+        if (inscriptions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, List<DocumentInfoDTO>> documentsByInscription = loadDocumentInfos(
+                inscriptions.stream().map(Inscription::getId).collect(Collectors.toList()));
+
+        return inscriptions.stream()
+                .map(inscription -> mapToDTO(inscription,
+                        documentsByInscription.getOrDefault(inscription.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, List<DocumentInfoDTO>> loadDocumentInfos(List<String> inscriptionIds) {
+        Map<String, List<DocumentInfoDTO>> result = new HashMap<>();
+        for (int from = 0; from < inscriptionIds.size(); from += DOCUMENT_BATCH_SIZE) {
+            List<String> chunk = inscriptionIds.subList(from, Math.min(from + DOCUMENT_BATCH_SIZE, inscriptionIds.size()));
+            for (DocumentMetadata doc : documentRepository.findMetadataByInscriptionIds(chunk)) {
+                result.computeIfAbsent(doc.getInscriptionId(), k -> new ArrayList<>())
+                        .add(DocumentInfoDTO.builder()
                                 .id(doc.getId())
                                 .fileName(doc.getFileName())
                                 .contentType(doc.getContentType())
                                 .fileSize(doc.getFileSize())
-                                .build())
-                        .collect(Collectors.toList());
+                                .build());
             }
-        } catch (Exception e) {
-            log.warn("Impossible de charger la liste de documents pour l'inscription {}: {}", inscription.getId(), e.getMessage());
         }
+        return result;
+    }
 
+    // Partagé avec l'export (même package) : aucune requête, simple copie des champs
+    static InscriptionDTO mapToDTO(Inscription inscription, List<DocumentInfoDTO> documentInfos) {
         return InscriptionDTO.builder()
                 .id(inscription.getId())
                 .doctorantId(inscription.getDoctorantId())
@@ -354,16 +1027,18 @@ public class InscriptionServiceImpl implements InscriptionService {
                 .specialite(inscription.getSpecialite())
                 .coDirecteurId(inscription.getCoDirecteurId())
                 .coDirecteurName(inscription.getCoDirecteurName())
-                .documents(documentInfos) // <-- Champ mis à jour
+                .documents(documentInfos)
                 .commentaireDirecteur(inscription.getCommentaireDirecteur())
                 .commentaireAdmin(inscription.getCommentaireAdmin())
                 .dateCreation(inscription.getDateCreation())
                 .dateModification(inscription.getDateModification())
                 .dateValidation(inscription.getDateValidation())
+                .version(inscription.getVersion())
                 .build();
     }
 
-    private String getStatusMessage(InscriptionStatus status) {
+    // Partagé avec le flux SSE des statuts (même package)
+    static String statusMessage(InscriptionStatus status) {
         switch (status) {
             case BROUILLON: return "Dossier en cours de préparation";
             case SOUMISE: return "Dossier soumis, en attente de traitement";
@@ -0,0 +1,17 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionStatisticsResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+
+import java.util.Map;
+
+public interface InscriptionStatisticsService {
+    void increment(InscriptionStatisticId group);
+    void decrement(InscriptionStatisticId group);
+    void move(InscriptionStatisticId from, InscriptionStatisticId to);
+    void applyDeltas(Map<InscriptionStatisticId, Long> deltas);
+    InscriptionStatisticsResponse getStatistics(AnneeAcademique anneeAcademique, InscriptionType type, String laboratoire);
+    int reconcile();
+}
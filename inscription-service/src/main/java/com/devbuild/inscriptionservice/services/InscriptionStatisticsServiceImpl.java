@@ -0,0 +1,281 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionStatisticDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionStatisticsResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.InscriptionStatistic;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+import com.devbuild.inscriptionservice.repository.AnneeClotureeRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionGroupCount;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionStatisticRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Statistiques servies depuis la table de compteurs "inscription_statistics" :
+ * une lecture coûte O(nombre de groupes × slots), indépendamment du nombre de dossiers.
+ * Les compteurs sont ajustés dans la transaction qui modifie l'inscription, sur un slot tiré
+ * au hasard parmi "inscription.statistics.slots" : deux créations simultanées d'un même groupe
+ * ne s'attendent pas (et ne retiennent pas leur connexion) sur une ligne unique.
+ * Tous les slots d'un groupe sont créés ensemble, à sa première occurrence : une transition sur
+ * un groupe existant met toujours à jour une ligne existante, que la réconciliation peut verrouiller.
+ * La réconciliation périodique recalcule les valeurs exactes et corrige toute dérive.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class InscriptionStatisticsServiceImpl implements InscriptionStatisticsService {
+
+    // Ordre fixe de mise à jour des compteurs : deux transactions concurrentes
+    // verrouillent les mêmes lignes dans le même ordre (pas d'interblocage)
+    private static final Comparator<InscriptionStatisticId> GROUP_ORDER = Comparator
+            .comparing(InscriptionStatisticId::getStatus)
+            .thenComparing(InscriptionStatisticId::getAnneeAcademique)
+            .thenComparing(InscriptionStatisticId::getType)
+            .thenComparing(InscriptionStatisticId::getLaboratoire)
+            .thenComparingInt(InscriptionStatisticId::getSlot);
+
+    private final InscriptionStatisticRepository statisticRepository;
+    private final InscriptionRepository inscriptionRepository;
+    private final AnneeClotureeRepository anneeClotureeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inscription.statistics.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    @Value("${inscription.statistics.slots:8}")
+    private int slots;
+
+    @Override
+    @Transactional
+    public void increment(InscriptionStatisticId group) {
+        adjust(group, 1);
+    }
+
+    @Override
+    @Transactional
+    public void decrement(InscriptionStatisticId group) {
+        adjust(group, -1);
+    }
+
+    @Override
+    @Transactional
+    public void move(InscriptionStatisticId from, InscriptionStatisticId to) {
+        if (from.equals(to)) {
+            return;
+        }
+        Map<InscriptionStatisticId, Long> deltas = new HashMap<>();
+        deltas.put(from, -1L);
+        deltas.put(to, 1L);
+        applyDeltas(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void applyDeltas(Map<InscriptionStatisticId, Long> deltas) {
+        Map<InscriptionStatisticId, Long> ordered = new TreeMap<>(GROUP_ORDER);
+        deltas.forEach((group, delta) -> {
+            if (delta != 0) {
+                ordered.merge(randomSlot(group), delta, Long::sum);
+            }
+        });
+        ordered.forEach(this::applyToRow);
+    }
+
+    private void adjust(InscriptionStatisticId group, long delta) {
+        applyToRow(randomSlot(group), delta);
+    }
+
+    private InscriptionStatisticId randomSlot(InscriptionStatisticId group) {
+        return group.withSlot(ThreadLocalRandom.current().nextInt(Math.max(1, slots)));
+    }
+
+    private void applyToRow(InscriptionStatisticId row, long delta) {
+        if (statisticRepository.increment(row, delta) == 1) {
+            return;
+        }
+        // Première occurrence du groupe (ou groupe supprimé par la réconciliation) : tous ses slots
+        // sont créés à zéro, y compris s'ils l'ont été entre-temps par une autre transaction
+        insertSlots(row.group(), 0);
+        statisticRepository.increment(row, delta);
+    }
+
+    /**
+     * Crée les slots absents du groupe, le slot 0 portant la valeur initiale.
+     *
+     * @return false si le slot 0 existait déjà (groupe créé par une autre transaction)
+     */
+    private boolean insertSlots(InscriptionStatisticId group, long initialTotal) {
+        boolean created = false;
+        for (int slot = 0; slot < Math.max(1, slots); slot++) {
+            int inserted = statisticRepository.insertIfAbsent(group.getStatus().name(), group.getAnneeAcademique(),
+                    group.getType().name(), group.getLaboratoire(), slot, slot == 0 ? initialTotal : 0);
+            if (slot == 0) {
+                created = inserted == 1;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InscriptionStatisticsResponse getStatistics(AnneeAcademique anneeAcademique, InscriptionType type,
+                                                       String laboratoire) {
+        List<InscriptionStatistic> rows = statisticRepository.findGroups(
+                anneeAcademique != null ? anneeAcademique.name() : null, type, laboratoire);
+
+        Map<InscriptionStatisticId, Long> totalsByGroup = new TreeMap<>(GROUP_ORDER);
+        for (InscriptionStatistic row : rows) {
+            totalsByGroup.merge(row.getId().group(), row.getTotal(), Long::sum);
+        }
+
+        Map<InscriptionStatus, Long> totalsByStatus = new EnumMap<>(InscriptionStatus.class);
+        for (InscriptionStatus status : InscriptionStatus.values()) {
+            totalsByStatus.put(status, 0L);
+        }
+        long total = 0;
+        List<InscriptionStatisticDTO> groups = new ArrayList<>();
+        for (Map.Entry<InscriptionStatisticId, Long> entry : totalsByGroup.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            totalsByStatus.merge(entry.getKey().getStatus(), entry.getValue(), Long::sum);
+            total += entry.getValue();
+            groups.add(toDTO(entry.getKey(), entry.getValue()));
+        }
+
+        return InscriptionStatisticsResponse.builder()
+                .success(true)
+                .message("Statistiques des inscriptions")
+                .total(total)
+                .totalsByStatus(totalsByStatus)
+                .groups(groups)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private InscriptionStatisticDTO toDTO(InscriptionStatisticId id, long count) {
+        return InscriptionStatisticDTO.builder()
+                .status(id.getStatus())
+                .anneeAcademique(id.getAnneeAcademique().isEmpty() ? null : AnneeAcademique.valueOf(id.getAnneeAcademique()))
+                .type(id.getType())
+                .laboratoire(id.getLaboratoire().isEmpty() ? null : id.getLaboratoire())
+                .count(count)
+                .build();
+    }
+
+    /**
+     * Recalcule tous les compteurs depuis la table des inscriptions (un GROUP BY) et
+     * corrige les groupes qui ont dérivé. Les slots manquants des groupes existants sont d'abord
+     * créés, puis tous les compteurs sont verrouillés pendant le calcul : une transition concurrente
+     * sur un groupe existant attend la fin de la réconciliation avant d'appliquer son delta.
+     * Un groupe apparu pendant le calcul n'est pas verrouillé : il n'est jamais écrasé, ses compteurs
+     * contiennent déjà les créations validées (prises en compte ou non par le GROUP BY).
+     *
+     * @return le nombre de groupes corrigés
+     */
+    @Override
+    public int reconcile() {
+        // TransactionTemplate : également transactionnel quand la tâche planifiée appelle cette méthode en interne
+        Integer corrected = transactionTemplate.execute(status -> reconcileInTransaction());
+        return corrected != null ? corrected : 0;
+    }
+
+    private int reconcileInTransaction() {
+        // Compteurs créés avant que tous les slots soient créés ensemble, ou nombre de slots augmenté :
+        // sans cela, une transition pourrait créer un slot non verrouillé pendant le calcul
+        for (int slot = 0; slot < Math.max(1, slots); slot++) {
+            statisticRepository.insertMissingSlot(slot);
+        }
+        Map<InscriptionStatisticId, List<InscriptionStatistic>> current = new HashMap<>();
+        for (InscriptionStatistic row : statisticRepository.lockAll()) {
+            current.computeIfAbsent(row.getId().group(), k -> new ArrayList<>()).add(row);
+        }
+
+        Map<InscriptionStatisticId, Long> expected = new LinkedHashMap<>();
+        for (InscriptionGroupCount group : inscriptionRepository.countByStatisticGroup()) {
+            InscriptionStatisticId id = new InscriptionStatisticId(
+                    group.getStatus(),
+                    group.getAnneeAcademique() != null ? group.getAnneeAcademique().name() : InscriptionStatisticId.NONE,
+                    group.getType(),
+                    group.getLaboratoire() != null ? group.getLaboratoire() : InscriptionStatisticId.NONE);
+            expected.merge(id, group.getTotal(), Long::sum);
+        }
+
+        int corrected = 0;
+        for (Map.Entry<InscriptionStatisticId, Long> entry : expected.entrySet()) {
+            InscriptionStatisticId group = entry.getKey();
+            List<InscriptionStatistic> rows = current.remove(group);
+            if (rows == null) {
+                if (!insertSlots(group, entry.getValue())) {
+                    log.warn("Groupe statistique {} créé pendant la réconciliation, vérifié au prochain passage", group);
+                }
+                corrected++;
+                continue;
+            }
+            long counted = rows.stream().mapToLong(InscriptionStatistic::getTotal).sum();
+            if (counted != entry.getValue()) {
+                log.warn("Dérive du compteur {}: {} au lieu de {}", group, counted, entry.getValue());
+                // Valeur exacte sur le premier slot, les autres sont remis à zéro (et restent verrouillés)
+                rows.get(0).setTotal(entry.getValue());
+                rows.subList(1, rows.size()).forEach(row -> row.setTotal(0));
+                corrected++;
+            }
+        }
+        // Groupes qui n'ont plus aucune inscription ; ceux des années clôturées restent tels quels
+        // (leurs dossiers ont quitté la table inscriptions pour le schéma d'archive)
+        Set<String> closedYears = anneeClotureeRepository.findAll().stream()
+                .map(cloture -> cloture.getAnneeAcademique().name())
+                .collect(Collectors.toSet());
+        for (Map.Entry<InscriptionStatisticId, List<InscriptionStatistic>> entry : current.entrySet()) {
+            if (closedYears.contains(entry.getKey().getAnneeAcademique())) {
+                continue;
+            }
+            long counted = entry.getValue().stream().mapToLong(InscriptionStatistic::getTotal).sum();
+            if (counted != 0) {
+                log.warn("Dérive du compteur {}: {} au lieu de 0", entry.getKey(), counted);
+                corrected++;
+            }
+            statisticRepository.deleteAll(entry.getValue());
+        }
+
+        log.info("Réconciliation des statistiques: {} groupe(s), {} corrigé(s)", expected.size(), corrected);
+        return corrected;
+    }
+
+    @Scheduled(cron = "${inscription.statistics.reconcile-cron:0 30 2 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    // Initialise les compteurs d'une base existante (ou après une migration) dès le démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAtStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+}
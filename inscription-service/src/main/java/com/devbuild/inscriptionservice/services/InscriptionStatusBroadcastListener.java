@@ -0,0 +1,36 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diffusion entre instances du flux SSE : chaque instance lit le topic de l'outbox avec son propre
+ * groupe de consommateurs (donc reçoit tous les événements, à partir du plus récent) et les
+ * transmet à ses abonnés locaux. Les événements déjà reçus localement sont ignorés (eventId).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "inscription.status-stream", name = "broadcast-enabled", havingValue = "true")
+public class InscriptionStatusBroadcastListener {
+
+    private final InscriptionStatusStream statusStream;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${inscription.outbox.topic:inscription-events}",
+            groupId = "${spring.application.name}-status-stream-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onEvent(String payload) {
+        try {
+            statusStream.publish(objectMapper.readValue(payload, InscriptionEvent.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Événement illisible ignoré par le flux SSE: {}", e.getMessage());
+        }
+    }
+}
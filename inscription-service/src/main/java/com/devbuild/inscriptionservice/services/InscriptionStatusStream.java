@@ -0,0 +1,275 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.StatusStreamProperties;
+import com.devbuild.inscriptionservice.dto.InscriptionEvent;
+import com.devbuild.inscriptionservice.dto.InscriptionStatusDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Diffusion en mémoire des changements de statut vers les abonnés SSE.
+ * - Sources : événements de l'outbox après validation de la transaction (instance locale) et,
+ *   si activé, topic Kafka de l'outbox (autres instances) ; doublons écartés sur eventId.
+ * - Aucun thread ni connexion JDBC par abonné : SseEmitter est asynchrone, et chaque abonné a une
+ *   file d'envoi vidée à la demande sur un thread virtuel (ordre préservé, un client lent ne
+ *   bloque ni la transaction d'origine ni les autres abonnés).
+ * - Reprise : les derniers événements sont conservés avec un numéro de séquence ; l'id SSE
+ *   "<instance>-<séquence>" permet de rejouer ce qui suit Last-Event-ID. Si la reprise est
+ *   impossible (autre instance, événements sortis du tampon), l'état courant est relu une fois.
+ */
+@Component
+@Slf4j
+public class InscriptionStatusStream {
+
+    private static final String INSCRIPTION_KEY = "inscription:";
+    private static final String DOCTORANT_KEY = "doctorant:";
+    private static final String EVENT_NAME = "status";
+
+    private final InscriptionService inscriptionService;
+    private final StatusStreamProperties properties;
+    // Identifie cette instance (et ce démarrage) dans les ids SSE
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Set<Subscriber>> subscribersByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Cache<String, Boolean> seenEventIds;
+
+    // Tampon de reprise et séquence, protégés par le verrou de l'instance
+    private final ArrayDeque<BufferedEvent> buffer = new ArrayDeque<>();
+    private long sequence;
+
+    public InscriptionStatusStream(InscriptionService inscriptionService, StatusStreamProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.inscriptionService = inscriptionService;
+        this.properties = properties;
+        this.seenEventIds = Caffeine.newBuilder().maximumSize(properties.getReplayBufferSize() * 2L).build();
+        Gauge.builder("inscription.status_stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Abonnés SSE aux changements de statut")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribeInscription(String inscriptionId, String lastEventId) {
+        return subscribe(INSCRIPTION_KEY + inscriptionId, lastEventId,
+                () -> List.of(inscriptionService.getInscriptionStatus(inscriptionId)));
+    }
+
+    public SseEmitter subscribeDoctorant(String doctorantId, String lastEventId) {
+        return subscribe(DOCTORANT_KEY + doctorantId, lastEventId,
+                () -> inscriptionService.getInscriptionStatusesByDoctorant(doctorantId));
+    }
+
+    /**
+     * Transition validée localement (événement publié par OutboxServiceImpl).
+     */
+    @TransactionalEventListener
+    public void onCommitted(InscriptionEvent event) {
+        publish(event);
+    }
+
+    public void publish(InscriptionEvent event) {
+        if (event.getStatus() == null || seenEventIds.asMap().putIfAbsent(event.getEventId(), Boolean.TRUE) != null) {
+            return;
+        }
+        List<Subscriber> targets = new ArrayList<>();
+        synchronized (this) {
+            BufferedEvent buffered = new BufferedEvent(++sequence, event);
+            buffer.addLast(buffered);
+            if (buffer.size() > properties.getReplayBufferSize()) {
+                buffer.removeFirst();
+            }
+            collect(targets, INSCRIPTION_KEY + event.getInscriptionId());
+            collect(targets, DOCTORANT_KEY + event.getDoctorantId());
+            targets.forEach(subscriber -> subscriber.pending.add(message(buffered)));
+        }
+        targets.forEach(this::drain);
+    }
+
+    @Scheduled(fixedDelayString = "${inscription.status-stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        // Un SseEventBuilder ne se réutilise pas : un commentaire par abonné
+        subscribersByKey.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            subscriber.pending.add(SseEmitter.event().comment("heartbeat"));
+            drain(subscriber);
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByKey.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    private SseEmitter subscribe(String key, String lastEventId, Supplier<List<InscriptionStatusDTO>> snapshot) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trop d'abonnés, réessayez plus tard");
+        }
+        Subscriber subscriber = new Subscriber(key, new SseEmitter(properties.getEmitterTimeout().toMillis()));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        // Abonnement et rejeu sous le même verrou que publish : aucun événement perdu ni dupliqué
+        long resumeFrom;
+        synchronized (this) {
+            resumeFrom = resumableSequence(lastEventId);
+            if (resumeFrom >= 0) {
+                for (BufferedEvent buffered : buffer) {
+                    if (buffered.sequence > resumeFrom && matches(key, buffered.event)) {
+                        subscriber.pending.add(message(buffered));
+                    }
+                }
+            } else {
+                // Les événements reçus pendant la lecture de l'état courant attendent derrière lui
+                subscriber.paused = true;
+            }
+            // Ajout atomique sur l'entrée de la clé : un désabonnement simultané ne peut pas retirer
+            // l'ensemble entre sa lecture et l'ajout (abonné orphelin, sans événements ni heartbeats)
+            subscribersByKey.compute(key, (k, subscribers) -> {
+                Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                target.add(subscriber);
+                return target;
+            });
+            resumeFrom = Math.max(resumeFrom, sequence);
+        }
+
+        if (subscriber.paused) {
+            List<InscriptionStatusDTO> current;
+            try {
+                current = snapshot.get();
+            } catch (RuntimeException e) {
+                unsubscribe(subscriber);
+                throw e;
+            }
+            String id = instanceId + "-" + resumeFrom;
+            Queue<SseEmitter.SseEventBuilder> withSnapshot = new ConcurrentLinkedQueue<>();
+            current.forEach(status -> withSnapshot.add(SseEmitter.event().id(id).name(EVENT_NAME)
+                    .data(status, MediaType.APPLICATION_JSON)));
+            synchronized (this) {
+                withSnapshot.addAll(subscriber.pending);
+                subscriber.pending = withSnapshot;
+                subscriber.paused = false;
+            }
+        }
+        drain(subscriber);
+        return subscriber.emitter;
+    }
+
+    // Séquence à partir de laquelle rejouer, ou -1 si Last-Event-ID est absent ou inexploitable
+    private long resumableSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(instanceId + "-")) {
+            return -1;
+        }
+        try {
+            long last = Long.parseLong(lastEventId.substring(instanceId.length() + 1));
+            long oldest = buffer.isEmpty() ? sequence + 1 : buffer.peekFirst().sequence;
+            // Des événements postérieurs à last ont quitté le tampon : reprise incomplète
+            return last + 1 < oldest || last > sequence ? -1 : last;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void collect(List<Subscriber> targets, String key) {
+        Set<Subscriber> subscribers = subscribersByKey.get(key);
+        if (subscribers != null) {
+            targets.addAll(subscribers);
+        }
+    }
+
+    private static boolean matches(String key, InscriptionEvent event) {
+        return key.equals(INSCRIPTION_KEY + event.getInscriptionId()) || key.equals(DOCTORANT_KEY + event.getDoctorantId());
+    }
+
+    private SseEmitter.SseEventBuilder message(BufferedEvent buffered) {
+        InscriptionEvent event = buffered.event;
+        InscriptionStatusDTO status = InscriptionStatusDTO.builder()
+                .id(event.getInscriptionId())
+                .status(event.getStatus())
+                .message(InscriptionServiceImpl.statusMessage(event.getStatus()))
+                .lastUpdate(event.getOccurredAt())
+                .build();
+        return SseEmitter.event().id(instanceId + "-" + buffered.sequence).name(EVENT_NAME)
+                .data(status, MediaType.APPLICATION_JSON);
+    }
+
+    // Vide la file de l'abonné sur un thread virtuel ; un seul envoi en cours par abonné
+    private void drain(Subscriber subscriber) {
+        if (subscriber.paused || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                SseEmitter.SseEventBuilder next;
+                while (!subscriber.paused && (next = subscriber.pending.poll()) != null) {
+                    subscriber.emitter.send(next);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client déconnecté : l'abonnement est retiré
+                unsubscribe(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+            if (!subscriber.paused && !subscriber.pending.isEmpty()) {
+                drain(subscriber);
+            }
+        });
+    }
+
+    // Retrait et suppression de l'ensemble vide en une opération atomique sur l'entrée de la clé ;
+    // le compteur n'est décrémenté qu'une fois, par l'appel qui a effectivement retiré l'abonné
+    private void unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribersByKey.computeIfPresent(subscriber.key, (key, subscribers) -> {
+            removed.set(subscribers.remove(subscriber));
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private record BufferedEvent(long sequence, InscriptionEvent event) {
+    }
+
+    private static final class Subscriber {
+        private final String key;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private volatile boolean paused;
+
+        private Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.OutboxProperties;
+import com.devbuild.inscriptionservice.model.OutboxEvent;
+import com.devbuild.inscriptionservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Relais de l'outbox : publie les événements en attente sur Kafka.
+ * Chaque lot est réservé par un bail (FOR UPDATE SKIP LOCKED dans une transaction courte), envoyé
+ * d'un bloc au producteur hors transaction (regroupement et compression côté Kafka), puis supprimé
+ * dans une seconde transaction courte une fois acquitté : ni connexion ni verrou pendant l'attente
+ * des accusés. Un arrêt brutal avant la suppression entraîne une republication à l'expiration du
+ * bail, jamais une perte.
+ * Ordre par clé (doctorantId) : après un échec, les événements suivants de la même clé restent
+ * dans l'outbox, même acquittés, et sont republiés après lui.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    // Propriétaire des baux de cette instance
+    private final String relayId = UUID.randomUUID().toString();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final TaskScheduler outboxRelayScheduler;
+
+    /**
+     * Passages planifiés sur le thread dédié (AsyncConfig), pas sur le planificateur partagé des
+     * @Scheduled : l'attente des accusés ne retarde ni les heartbeats ni les autres tâches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelay() {
+        if (properties.isRelayEnabled()) {
+            outboxRelayScheduler.scheduleWithFixedDelay(this::relayPending, properties.getPollInterval());
+        }
+    }
+
+    /**
+     * Publie les lots en attente jusqu'à vider l'outbox (dans la limite de maxBatchesPerRun).
+     * Le passage s'arrête au premier lot incomplet ou en échec.
+     *
+     * @return le nombre d'événements publiés
+     */
+    public int relayPending() {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+            if (events == null || events.isEmpty()) {
+                break;
+            }
+            List<Long> published = publish(events);
+            Set<Long> publishedIds = new HashSet<>(published);
+            List<Long> pending = events.stream()
+                    .map(OutboxEvent::getId)
+                    .filter(id -> !publishedIds.contains(id))
+                    .collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.deleteAllByIdInBatch(published);
+                if (!pending.isEmpty()) {
+                    outboxEventRepository.releaseLeases(pending, relayId);
+                }
+            });
+            total += published.size();
+            if (!pending.isEmpty() || events.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Outbox: {} événement(s) publié(s) sur {}", total, properties.getTopic());
+        }
+        return total;
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockClaimable(now, properties.getBatchSize());
+        if (!events.isEmpty()) {
+            outboxEventRepository.grantLeases(events.stream().map(OutboxEvent::getId).collect(Collectors.toList()),
+                    relayId, now.plus(properties.getLeaseDuration()));
+        }
+        return events;
+    }
+
+    // Hors transaction : retourne les événements à supprimer, dans l'ordre du lot
+    private List<Long> publish(List<OutboxEvent> events) {
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(kafkaTemplate.send(toRecord(event)));
+        }
+        // Tout le lot est dans le tampon du producteur : inutile d'attendre linger.ms
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        List<Long> published = new ArrayList<>(events.size());
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (failedKeys.contains(event.getMessageKey())) {
+                    // Publié après un prédécesseur en échec : republié après lui (doublon filtré par eventId)
+                    continue;
+                }
+                published.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                // Reste dans l'outbox avec les suivants de sa clé : republié au prochain passage
+                failedKeys.add(event.getMessageKey());
+                log.warn("Publication de l'événement {} ({}) échouée: {}", event.getEventId(), event.getEventType(),
+                        e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return published;
+    }
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        ProducerRecord<String, String> record =
+                new ProducerRecord<>(properties.getTopic(), event.getMessageKey(), event.getPayload());
+        record.headers().add("eventId", event.getEventId().getBytes(StandardCharsets.UTF_8));
+        record.headers().add("eventType", event.getEventType().name().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,10 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionEvent;
+
+import java.util.List;
+
+public interface OutboxService {
+    void append(InscriptionEvent event);
+    void append(List<InscriptionEvent> events);
+}
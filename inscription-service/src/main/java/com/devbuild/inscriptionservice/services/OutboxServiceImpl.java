@@ -0,0 +1,62 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionEvent;
+import com.devbuild.inscriptionservice.model.OutboxEvent;
+import com.devbuild.inscriptionservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture des événements dans l'outbox. Exige une transaction en cours :
+ * l'événement est validé (ou annulé) avec la transition qui l'a produit.
+ * Chaque événement est aussi publié dans le contexte Spring, pour les écouteurs locaux
+ * déclenchés après validation (@TransactionalEventListener, ex. flux SSE des statuts).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(InscriptionEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        eventPublisher.publishEvent(event);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<InscriptionEvent> events) {
+        if (!events.isEmpty()) {
+            outboxEventRepository.saveAll(events.stream().map(this::toOutboxEvent).collect(Collectors.toList()));
+            events.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    private OutboxEvent toOutboxEvent(InscriptionEvent event) {
+        try {
+            return OutboxEvent.builder()
+                    .eventId(event.getEventId())
+                    .eventType(event.getEventType())
+                    .aggregateId(event.getInscriptionId())
+                    .messageKey(event.getDoctorantId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de l'événement impossible: " + event.getEventId(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobRequest;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobResponse;
+
+public interface ReinscriptionJobService {
+
+    // Lance la génération des réinscriptions (asynchrone) ; relance un job terminé pour les dossiers validés depuis
+    ReinscriptionJobResponse start(ReinscriptionJobRequest request);
+
+    // Reprend un job interrompu à partir des points de reprise de ses tranches
+    ReinscriptionJobResponse resume(String jobId);
+
+    ReinscriptionJobResponse getJob(String jobId);
+}
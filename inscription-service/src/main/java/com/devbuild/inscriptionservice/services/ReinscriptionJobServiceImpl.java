@@ -0,0 +1,427 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.ReinscriptionJobProperties;
+import com.devbuild.inscriptionservice.dto.InscriptionEvent;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobDTO;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobRequest;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionEventType;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.enums.ReinscriptionJobStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+import com.devbuild.inscriptionservice.model.ReinscriptionJob;
+import com.devbuild.inscriptionservice.model.ReinscriptionJobPartition;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionSpecifications;
+import com.devbuild.inscriptionservice.repository.ReinscriptionJobPartitionRepository;
+import com.devbuild.inscriptionservice.repository.ReinscriptionJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Réinscription annuelle en masse : chaque dossier VALIDEE de l'année source donne une
+ * réinscription SOUMISE pour l'année cible, sans passer dossier par dossier par createReinscription
+ * (une vérification de campagne et une relecture du dossier précédent par appel).
+ * - Les doctorantId éligibles sont découpés en tranches [borne basse, borne haute) calculées une
+ *   fois au lancement ; un worker par tranche parcourt ses dossiers par curseur (doctorantId, id).
+ * - Chaque lot est une transaction : verrou de la tranche, lecture du lot, insertions groupées
+ *   (saveAll, statistiques, outbox) et avancement du point de reprise. Un arrêt au milieu d'un lot
+ *   l'annule entièrement ; la reprise repart du dernier lot validé.
+ * - Les doctorants ayant déjà un dossier pour l'année cible sont ignorés : relancer un job terminé
+ *   ne crée que les réinscriptions des dossiers validés depuis.
+ */
+@Service
+@Slf4j
+public class ReinscriptionJobServiceImpl implements ReinscriptionJobService {
+
+    private final InscriptionRepository inscriptionRepository;
+    private final ReinscriptionJobRepository jobRepository;
+    private final ReinscriptionJobPartitionRepository partitionRepository;
+    private final ActiveCampaignIndex activeCampaignIndex;
+    private final InscriptionStatisticsService statisticsService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final ReinscriptionJobProperties properties;
+
+    // Jobs exécutés par cette instance (une seule exécution locale par job)
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ReinscriptionJobServiceImpl(InscriptionRepository inscriptionRepository,
+                                       ReinscriptionJobRepository jobRepository,
+                                       ReinscriptionJobPartitionRepository partitionRepository,
+                                       ActiveCampaignIndex activeCampaignIndex,
+                                       InscriptionStatisticsService statisticsService,
+                                       OutboxService outboxService,
+                                       TransactionTemplate transactionTemplate,
+                                       @Qualifier("reinscriptionJobExecutor") ThreadPoolTaskExecutor executor,
+                                       ReinscriptionJobProperties properties) {
+        this.inscriptionRepository = inscriptionRepository;
+        this.jobRepository = jobRepository;
+        this.partitionRepository = partitionRepository;
+        this.activeCampaignIndex = activeCampaignIndex;
+        this.statisticsService = statisticsService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    @Override
+    public ReinscriptionJobResponse start(ReinscriptionJobRequest request) {
+        AnneeAcademique sourceAnnee = request.getSourceAnnee();
+        if (sourceAnnee == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sourceAnnee est obligatoire");
+        }
+        AnneeAcademique targetAnnee = request.getTargetAnnee() != null ? request.getTargetAnnee() : nextAnnee(sourceAnnee);
+        if (targetAnnee.compareTo(sourceAnnee) <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'année cible doit suivre l'année source");
+        }
+        // Une seule vérification de campagne pour tout le job
+        if (!activeCampaignIndex.isOpen(InscriptionType.REINSCRIPTION, LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Aucune campagne active n'est disponible pour " + InscriptionType.REINSCRIPTION);
+        }
+
+        ReinscriptionJob job;
+        try {
+            job = transactionTemplate.execute(status -> prepareStart(sourceAnnee, targetAnnee));
+        } catch (DataIntegrityViolationException e) {
+            // Job créé au même moment par une autre requête (contrainte unique sur les années)
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Un job de réinscription " + sourceAnnee + " -> " + targetAnnee + " vient d'être lancé");
+        }
+        launch(job.getId());
+        return response("Job de réinscription lancé", job.getId());
+    }
+
+    @Override
+    public ReinscriptionJobResponse resume(String jobId) {
+        if (running.contains(jobId)) {
+            return response("Job de réinscription déjà en cours sur cette instance", jobId);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            ReinscriptionJob job = getJobEntity(jobId);
+            if (job.getStatus() == ReinscriptionJobStatus.TERMINEE) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Le job " + jobId + " est déjà terminé");
+            }
+            prepareResume(job);
+        });
+        boolean launched = launch(jobId);
+        return response(launched ? "Job de réinscription repris" : "Job de réinscription déjà en cours sur cette instance",
+                jobId);
+    }
+
+    @Override
+    public ReinscriptionJobResponse getJob(String jobId) {
+        return response("Job de réinscription récupéré", jobId);
+    }
+
+    /**
+     * Reprise automatique après un arrêt ou un crash. Plusieurs instances peuvent reprendre le même
+     * job : le verrou de tranche les fait travailler lot par lot sans double insertion.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!properties.isResumeOnStartup()) {
+            return;
+        }
+        for (ReinscriptionJob job : jobRepository.findByStatus(ReinscriptionJobStatus.EN_COURS)) {
+            log.info("Reprise du job de réinscription {} ({} -> {})", job.getId(), job.getSourceAnnee(), job.getTargetAnnee());
+            transactionTemplate.executeWithoutResult(status -> prepareResume(getJobEntity(job.getId())));
+            launch(job.getId());
+        }
+    }
+
+    // --- Préparation (transactions courtes) ---
+
+    private ReinscriptionJob prepareStart(AnneeAcademique sourceAnnee, AnneeAcademique targetAnnee) {
+        ReinscriptionJob job = jobRepository.findBySourceAnneeAndTargetAnnee(sourceAnnee, targetAnnee).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (job == null) {
+            job = jobRepository.saveAndFlush(ReinscriptionJob.builder()
+                    .sourceAnnee(sourceAnnee)
+                    .targetAnnee(targetAnnee)
+                    .status(ReinscriptionJobStatus.EN_COURS)
+                    .dateDebut(now)
+                    .dateReprise(now)
+                    .build());
+        } else if (job.getStatus() == ReinscriptionJobStatus.TERMINEE) {
+            // Nouveau passage complet : les doctorants déjà réinscrits seront ignorés
+            partitionRepository.deleteByJobId(job.getId());
+            job.setStatus(ReinscriptionJobStatus.EN_COURS);
+            job.setDateDebut(now);
+            job.setDateReprise(now);
+            job.setTraitesAvantReprise(0);
+            job.setDateFin(null);
+            job.setErreur(null);
+        } else if (job.getStatus() == ReinscriptionJobStatus.ECHOUEE) {
+            prepareResume(job);
+            return job;
+        } else {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Le job " + job.getId() + " est déjà en cours (POST /inscriptions/reinscriptions/jobs/" + job.getId() + "/resume)");
+        }
+        createPartitions(job);
+        return job;
+    }
+
+    private void prepareResume(ReinscriptionJob job) {
+        long processed = partitionRepository.findByJobIdOrderByPartitionIndex(job.getId()).stream()
+                .mapToLong(ReinscriptionJobPartition::getProcessed).sum();
+        job.setStatus(ReinscriptionJobStatus.EN_COURS);
+        job.setErreur(null);
+        job.setDateFin(null);
+        job.setDateReprise(LocalDateTime.now());
+        job.setTraitesAvantReprise(processed);
+    }
+
+    /**
+     * Bornes des tranches : doctorantId aux quantiles des dossiers éligibles (lecture de l'index
+     * (annee, status, doctorant_id) une fois par borne, au lancement seulement). Les doublons sont
+     * fusionnés : un doctorant très représenté ne peut pas se retrouver dans deux tranches.
+     */
+    private void createPartitions(ReinscriptionJob job) {
+        long total = inscriptionRepository.countByStatusAndAnneeAcademique(InscriptionStatus.VALIDEE, job.getSourceAnnee());
+        int partitions = (int) Math.max(1, Math.min(properties.getPartitions(), total / Math.max(1, properties.getChunkSize()) + 1));
+        TreeSet<String> bounds = new TreeSet<>();
+        for (int k = 1; k < partitions; k++) {
+            int offset = (int) (total * k / partitions);
+            inscriptionRepository.findDoctorantIdsByStatusAndAnnee(InscriptionStatus.VALIDEE, job.getSourceAnnee(),
+                    PageRequest.of(offset, 1)).stream().findFirst().ifPresent(bounds::add);
+        }
+
+        List<ReinscriptionJobPartition> rows = new ArrayList<>();
+        String lower = null;
+        for (String upper : bounds) {
+            rows.add(partition(job.getId(), rows.size(), lower, upper));
+            lower = upper;
+        }
+        rows.add(partition(job.getId(), rows.size(), lower, null));
+        partitionRepository.saveAll(rows);
+        log.info("Job de réinscription {} : {} dossier(s) VALIDEE en {} -> {} tranche(s)",
+                job.getId(), total, job.getSourceAnnee(), rows.size());
+    }
+
+    private static ReinscriptionJobPartition partition(String jobId, int index, String lowerBound, String upperBound) {
+        return ReinscriptionJobPartition.builder()
+                .jobId(jobId)
+                .partitionIndex(index)
+                .lowerBound(lowerBound)
+                .upperBound(upperBound)
+                .build();
+    }
+
+    // --- Exécution ---
+
+    private boolean launch(String jobId) {
+        if (!running.add(jobId)) {
+            return false;
+        }
+        try {
+            ReinscriptionJob job = getJobEntity(jobId);
+            List<ReinscriptionJobPartition> pending = partitionRepository.findByJobIdOrderByPartitionIndex(jobId).stream()
+                    .filter(partition -> !partition.isTermine())
+                    .collect(Collectors.toList());
+
+            long start = System.nanoTime();
+            AtomicLong processed = new AtomicLong();
+            AtomicLong created = new AtomicLong();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            CompletableFuture<?>[] workers = pending.stream()
+                    .map(partition -> CompletableFuture.runAsync(
+                            () -> runPartition(job, partition, processed, created), executor)
+                            .exceptionally(e -> {
+                                failure.compareAndSet(null, e.getCause() != null ? e.getCause() : e);
+                                return null;
+                            }))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(workers).whenComplete((ignored, e) -> {
+                try {
+                    finish(jobId, failure.get(), processed.get(), created.get(), start);
+                } finally {
+                    running.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            running.remove(jobId);
+            throw e;
+        }
+    }
+
+    private void runPartition(ReinscriptionJob job, ReinscriptionJobPartition partition,
+                              AtomicLong processed, AtomicLong created) {
+        long start = System.nanoTime();
+        long[] counts = new long[2];
+        boolean more = true;
+        try {
+            while (more) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        processChunk(job, partition.getId(), counts)));
+            }
+        } finally {
+            // Lots validés avant une éventuelle erreur : comptés dans le bilan de l'exécution
+            processed.addAndGet(counts[0]);
+            created.addAndGet(counts[1]);
+        }
+        double seconds = Math.max(0.001, (System.nanoTime() - start) / 1e9);
+        log.info("Job {} tranche {} terminée: {} dossier(s) lu(s), {} réinscription(s) créée(s) ({} lignes/s)",
+                job.getId(), partition.getPartitionIndex(), counts[0], counts[1], String.format("%.1f", counts[0] / seconds));
+    }
+
+    /**
+     * Un lot dans la transaction courante. Retourne false quand la tranche est épuisée.
+     * counts : [dossiers lus, réinscriptions créées] par ce worker.
+     */
+    private boolean processChunk(ReinscriptionJob job, Long partitionId, long[] counts) {
+        ReinscriptionJobPartition partition = partitionRepository.lockById(partitionId)
+                .orElseThrow(() -> new RuntimeException("Tranche de job non trouvée: " + partitionId));
+        if (partition.isTermine()) {
+            return false;
+        }
+
+        Specification<Inscription> spec = InscriptionSpecifications.inDoctorantRange(job.getSourceAnnee(),
+                InscriptionStatus.VALIDEE, partition.getLowerBound(), partition.getUpperBound());
+        if (partition.getLastInscriptionId() != null) {
+            spec = spec.and(InscriptionSpecifications.afterDoctorant(partition.getLastDoctorantId(),
+                    partition.getLastInscriptionId()));
+        }
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<Inscription> chunk = inscriptionRepository.findBy(spec, query -> query
+                .sortBy(InscriptionSpecifications.DOCTORANT_KEYSET_SORT)
+                .limit(chunkSize)
+                .all());
+
+        if (!chunk.isEmpty()) {
+            // Une requête IN pour tout le lot ; un doctorant présent plusieurs fois n'est réinscrit qu'une fois
+            Set<String> skip = new HashSet<>(inscriptionRepository.findDoctorantIdsInAnnee(job.getTargetAnnee(),
+                    chunk.stream().map(Inscription::getDoctorantId).distinct().collect(Collectors.toList())));
+            List<Inscription> toInsert = new ArrayList<>();
+            for (Inscription previous : chunk) {
+                if (skip.add(previous.getDoctorantId())) {
+                    toInsert.add(InscriptionServiceImpl.reinscriptionOf(previous, previous.getDoctorantId(),
+                            job.getTargetAnnee(), null));
+                }
+            }
+            if (!toInsert.isEmpty()) {
+                List<Inscription> inserted = inscriptionRepository.saveAll(toInsert);
+                statisticsService.applyDeltas(inserted.stream().collect(
+                        Collectors.groupingBy(InscriptionStatisticId::of, Collectors.counting())));
+                List<InscriptionEvent> events = inserted.stream()
+                        .map(inscription -> InscriptionServiceImpl.eventOf(inscription,
+                                InscriptionEventType.REINSCRIPTION_SOUMISE, null, null))
+                        .collect(Collectors.toList());
+                outboxService.append(events);
+            }
+
+            Inscription last = chunk.get(chunk.size() - 1);
+            partition.setLastDoctorantId(last.getDoctorantId());
+            partition.setLastInscriptionId(last.getId());
+            partition.setProcessed(partition.getProcessed() + chunk.size());
+            partition.setCreated(partition.getCreated() + toInsert.size());
+            counts[0] += chunk.size();
+            counts[1] += toInsert.size();
+        }
+        if (chunk.size() < chunkSize) {
+            partition.setTermine(true);
+        }
+        return !partition.isTermine();
+    }
+
+    private void finish(String jobId, Throwable failure, long processed, long created, long start) {
+        double seconds = Math.max(0.001, (System.nanoTime() - start) / 1e9);
+        transactionTemplate.executeWithoutResult(status -> {
+            ReinscriptionJob job = getJobEntity(jobId);
+            if (failure != null) {
+                job.setStatus(ReinscriptionJobStatus.ECHOUEE);
+                job.setErreur(failure.getMessage());
+            } else if (partitionRepository.findByJobIdOrderByPartitionIndex(jobId).stream()
+                    .allMatch(ReinscriptionJobPartition::isTermine)) {
+                job.setStatus(ReinscriptionJobStatus.TERMINEE);
+                job.setDateFin(LocalDateTime.now());
+            }
+        });
+        if (failure != null) {
+            log.error("Job de réinscription {} interrompu après {} dossier(s) lu(s), {} créée(s): {}",
+                    jobId, processed, created, failure.getMessage(), failure);
+        } else {
+            log.info("Job de réinscription {} : {} dossier(s) lu(s), {} réinscription(s) créée(s) en {} s ({} lignes/s)",
+                    jobId, processed, created, String.format("%.1f", seconds), String.format("%.1f", processed / seconds));
+        }
+    }
+
+    // --- Helpers ---
+
+    private static AnneeAcademique nextAnnee(AnneeAcademique annee) {
+        AnneeAcademique[] annees = AnneeAcademique.values();
+        if (annee.ordinal() + 1 >= annees.length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Aucune année académique après " + annee);
+        }
+        return annees[annee.ordinal() + 1];
+    }
+
+    private ReinscriptionJob getJobEntity(String jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job de réinscription non trouvé avec l'ID: " + jobId));
+    }
+
+    private ReinscriptionJobResponse response(String message, String jobId) {
+        return ReinscriptionJobResponse.builder()
+                .success(true)
+                .message(message)
+                .data(toDTO(getJobEntity(jobId)))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private ReinscriptionJobDTO toDTO(ReinscriptionJob job) {
+        List<ReinscriptionJobPartition> partitions = partitionRepository.findByJobIdOrderByPartitionIndex(job.getId());
+        long processed = partitions.stream().mapToLong(ReinscriptionJobPartition::getProcessed).sum();
+        long created = partitions.stream().mapToLong(ReinscriptionJobPartition::getCreated).sum();
+        LocalDateTime end = job.getDateFin() != null ? job.getDateFin() : LocalDateTime.now();
+        double seconds = Math.max(0.001, Duration.between(job.getDateReprise(), end).toMillis() / 1000.0);
+        return ReinscriptionJobDTO.builder()
+                .id(job.getId())
+                .sourceAnnee(job.getSourceAnnee())
+                .targetAnnee(job.getTargetAnnee())
+                .status(job.getStatus())
+                .partitions(partitions.size())
+                .partitionsTerminees((int) partitions.stream().filter(ReinscriptionJobPartition::isTermine).count())
+                .processed(processed)
+                .created(created)
+                .skipped(processed - created)
+                .rowsPerSecond(Math.round((processed - job.getTraitesAvantReprise()) / seconds * 10) / 10.0)
+                .erreur(job.getErreur())
+                .dateDebut(job.getDateDebut())
+                .dateReprise(job.getDateReprise())
+                .dateFin(job.getDateFin())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.WorkQueueClaimRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseResponse;
+import com.devbuild.inscriptionservice.dto.WorkQueueResponse;
+
+public interface WorkQueueService {
+
+    // Réserve les N plus anciens dossiers libres du statut demandé
+    WorkQueueResponse claim(WorkQueueClaimRequest request);
+
+    WorkQueueLeaseResponse renew(WorkQueueLeaseRequest request);
+
+    WorkQueueLeaseResponse release(WorkQueueLeaseRequest request);
+}
@@ -0,0 +1,158 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.WorkQueueProperties;
+import com.devbuild.inscriptionservice.dto.DocumentInfoDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionDTO;
+import com.devbuild.inscriptionservice.dto.WorkQueueClaimRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseResponse;
+import com.devbuild.inscriptionservice.dto.WorkQueueResponse;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.DocumentMetadata;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * File de traitement des dossiers en attente : chaque relecteur réserve des dossiers distincts
+ * pour une durée limitée (bail), au lieu de choisir en tête d'une liste commune.
+ * Réservation par SELECT ... FOR UPDATE SKIP LOCKED : des relecteurs simultanés obtiennent des
+ * lignes différentes sans s'attendre. Un bail expiré rend le dossier réservable à nouveau.
+ * Pendant le bail, seul son détenteur peut décider du dossier (reviewerId des validations) ;
+ * la décision libère le bail et le dossier est réservable dans son nouveau statut.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WorkQueueServiceImpl implements WorkQueueService {
+
+    // Statuts en attente d'une décision (directeur ou administration)
+    private static final Set<InscriptionStatus> CLAIMABLE = EnumSet.of(InscriptionStatus.SOUMISE,
+            InscriptionStatus.EN_ATTENTE_DIRECTEUR, InscriptionStatus.APPROUVEE_DIRECTEUR, InscriptionStatus.EN_ATTENTE_ADMIN);
+
+    private final InscriptionRepository inscriptionRepository;
+    private final DocumentRepository documentRepository;
+    private final WorkQueueProperties properties;
+
+    @Override
+    @Transactional
+    public WorkQueueResponse claim(WorkQueueClaimRequest request) {
+        String reviewerId = requireReviewer(request.getReviewerId());
+        if (request.getStatus() == null || !CLAIMABLE.contains(request.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Statut non réservable (attendu: " + CLAIMABLE + ")");
+        }
+        int count = Math.max(1, Math.min(request.getCount(), properties.getMaxClaim()));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getLeaseDuration());
+        List<Inscription> claimed = inscriptionRepository.lockClaimable(request.getStatus().name(), now, count);
+        if (!claimed.isEmpty()) {
+            inscriptionRepository.grantLeases(claimed.stream().map(Inscription::getId).collect(Collectors.toList()),
+                    reviewerId, expiresAt);
+        }
+        log.info("File {}: {} dossier(s) réservé(s) par {} jusqu'à {}", request.getStatus(), claimed.size(),
+                reviewerId, expiresAt);
+
+        return WorkQueueResponse.builder()
+                .success(true)
+                .message(claimed.size() + " dossier(s) réservé(s)")
+                .reviewerId(reviewerId)
+                .leaseExpiresAt(expiresAt)
+                .data(mapToDTOs(claimed))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public WorkQueueLeaseResponse renew(WorkQueueLeaseRequest request) {
+        String reviewerId = requireReviewer(request.getReviewerId());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getLeaseDuration());
+        List<String> held = heldLeases(reviewerId, request.getIds(), now);
+        if (!held.isEmpty()) {
+            inscriptionRepository.renewLeases(held, reviewerId, now, expiresAt);
+        }
+        return leaseResult(request, reviewerId, held, expiresAt, "renouvelé(s)");
+    }
+
+    @Override
+    @Transactional
+    public WorkQueueLeaseResponse release(WorkQueueLeaseRequest request) {
+        String reviewerId = requireReviewer(request.getReviewerId());
+        List<String> held = heldLeases(reviewerId, request.getIds(), LocalDateTime.now());
+        if (!held.isEmpty()) {
+            inscriptionRepository.releaseLeases(held, reviewerId);
+        }
+        return leaseResult(request, reviewerId, held, null, "libéré(s)");
+    }
+
+    // Baux actifs du relecteur, restreints aux ids demandés le cas échéant
+    private List<String> heldLeases(String reviewerId, List<String> ids, LocalDateTime now) {
+        List<String> held = inscriptionRepository.findLeasedIds(reviewerId, now);
+        if (ids == null) {
+            return held;
+        }
+        Set<String> requested = new HashSet<>(ids);
+        return held.stream().filter(requested::contains).collect(Collectors.toList());
+    }
+
+    private WorkQueueLeaseResponse leaseResult(WorkQueueLeaseRequest request, String reviewerId, List<String> held,
+                                               LocalDateTime expiresAt, String action) {
+        // Ids demandés mais non détenus : bail expiré et repris, ou jamais réservé par ce relecteur
+        boolean complete = request.getIds() == null || held.size() == new HashSet<>(request.getIds()).size();
+        return WorkQueueLeaseResponse.builder()
+                .success(complete)
+                .message(held.size() + " bail(aux) " + action)
+                .reviewerId(reviewerId)
+                .leaseExpiresAt(expiresAt)
+                .ids(held)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static String requireReviewer(String reviewerId) {
+        if (reviewerId == null || reviewerId.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "reviewerId est obligatoire");
+        }
+        return reviewerId;
+    }
+
+    // Documents chargés en une requête pour tout le lot (au plus maxClaim dossiers)
+    private List<InscriptionDTO> mapToDTOs(List<Inscription> inscriptions) {
+        if (inscriptions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, List<DocumentInfoDTO>> documents = new HashMap<>();
+        for (DocumentMetadata doc : documentRepository.findMetadataByInscriptionIds(
+                inscriptions.stream().map(Inscription::getId).collect(Collectors.toList()))) {
+            documents.computeIfAbsent(doc.getInscriptionId(), k -> new ArrayList<>())
+                    .add(DocumentInfoDTO.builder()
+                            .id(doc.getId())
+                            .fileName(doc.getFileName())
+                            .contentType(doc.getContentType())
+                            .fileSize(doc.getFileSize())
+                            .build());
+        }
+        return inscriptions.stream()
+                .map(inscription -> InscriptionServiceImpl.mapToDTO(inscription,
+                        documents.getOrDefault(inscription.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+}
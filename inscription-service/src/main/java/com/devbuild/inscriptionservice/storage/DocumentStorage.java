@@ -0,0 +1,50 @@
+package com.devbuild.inscriptionservice.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Stockage du contenu binaire des documents, adressé par empreinte (SHA-256).
+ * La base ne conserve que les métadonnées et l'empreinte ; deux fichiers identiques
+ * partagent le même contenu stocké.
+ * Un contenu n'est jamais supprimé directement : il est récupéré par le ramasse-miettes
+ * (DocumentBlobCollector) une fois sans référence et non modifié depuis un délai de grâce.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Copie le flux vers le stockage en calculant l'empreinte au fil de l'eau.
+     * Si le contenu existe déjà, sa date de modification est mise à jour : il ne peut pas être
+     * récupéré avant que l'appelant ait enregistré sa référence.
+     */
+    StoredBlob store(InputStream content) throws IOException;
+
+    Resource load(String contentHash);
+
+    /**
+     * Chemin local du contenu, ou null si le stockage n'est pas un système de fichiers
+     * (utilisé pour l'envoi "zero-copy" par sendfile).
+     */
+    Path resolve(String contentHash);
+
+    boolean exists(String contentHash);
+
+    void delete(String contentHash) throws IOException;
+
+    /**
+     * Empreintes des contenus non modifiés depuis cutoff (candidats du ramasse-miettes).
+     * Le flux doit être fermé par l'appelant.
+     */
+    Stream<String> listUnmodifiedSince(Instant cutoff) throws IOException;
+
+    /**
+     * Supprime le contenu s'il n'a pas été modifié depuis cutoff ; un store() concurrent du même
+     * contenu le conserve (ou le réécrit). Retourne true si le contenu a été supprimé.
+     */
+    boolean deleteIfUnmodifiedSince(String contentHash, Instant cutoff) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.devbuild.inscriptionservice.storage;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class DocumentTooLargeException extends RuntimeException {
+
+    public DocumentTooLargeException(String message) {
+        super(message);
+    }
+}
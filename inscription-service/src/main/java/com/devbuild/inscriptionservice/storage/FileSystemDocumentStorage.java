@@ -0,0 +1,167 @@
+package com.devbuild.inscriptionservice.storage;
+
+import com.devbuild.inscriptionservice.config.DocumentUploadProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Stockage local "content-addressed" : racine/ab/cd/abcd...(sha256).
+ * La copie se fait par blocs de taille fixe (buffer-size) : la mémoire utilisée ne dépend pas
+ * de la taille du fichier. L'empreinte SHA-256 et le CRC-32 sont calculés pendant la même lecture.
+ * Le contenu est d'abord écrit dans un fichier temporaire, puis déplacé atomiquement
+ * sous son empreinte ; si ce contenu existe déjà, le fichier temporaire est simplement supprimé
+ * et la date de modification du contenu existant est mise à jour.
+ * Ramasse-miettes : le contenu est d'abord renommé dans tmp ; si un upload l'a touché entre-temps,
+ * il est remis en place, sinon supprimé. Un upload qui arrive après le renommage réécrit le contenu.
+ */
+@Component
+@Slf4j
+public class FileSystemDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+    private final Path tmpDir;
+    private final int bufferSize;
+
+    public FileSystemDocumentStorage(@Value("${inscription.documents.storage-root:./data/documents}") String root,
+                                     DocumentUploadProperties uploadProperties) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.bufferSize = (int) uploadProperties.getBufferSize().toBytes();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Stockage des documents: {}", this.root);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        CRC32 crc = new CRC32();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        long size = 0;
+        try {
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[bufferSize];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            moveIntoPlace(tmp, hash);
+            return new StoredBlob(hash, size, crc.getValue());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Resource load(String contentHash) {
+        return new FileSystemResource(resolve(contentHash));
+    }
+
+    @Override
+    public Path resolve(String contentHash) {
+        if (contentHash == null || contentHash.length() < 4) {
+            throw new IllegalArgumentException("Empreinte invalide: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+
+    @Override
+    public boolean exists(String contentHash) {
+        return Files.exists(resolve(contentHash));
+    }
+
+    @Override
+    public void delete(String contentHash) throws IOException {
+        Files.deleteIfExists(resolve(contentHash));
+    }
+
+    @Override
+    public Stream<String> listUnmodifiedSince(Instant cutoff) throws IOException {
+        // Contenus uniquement : racine/ab/cd/abcd..., hors du répertoire tmp
+        return Files.find(root, 3, (path, attrs) -> attrs.isRegularFile()
+                        && !path.startsWith(tmpDir)
+                        && root.relativize(path).getNameCount() == 3
+                        && attrs.lastModifiedTime().toInstant().isBefore(cutoff))
+                .map(path -> path.getFileName().toString());
+    }
+
+    @Override
+    public boolean deleteIfUnmodifiedSince(String contentHash, Instant cutoff) throws IOException {
+        Path target = resolve(contentHash);
+        Path trash = tmpDir.resolve("gc-" + contentHash + "-" + UUID.randomUUID());
+        try {
+            Files.move(target, trash, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (!Files.getLastModifiedTime(trash).toInstant().isBefore(cutoff)) {
+            // Touché par un upload avant le renommage : remis en place (ou déjà réécrit, contenu identique)
+            Files.move(trash, target, StandardCopyOption.ATOMIC_MOVE);
+            return false;
+        }
+        Files.delete(trash);
+        return true;
+    }
+
+    private void moveIntoPlace(Path tmp, String hash) throws IOException {
+        Path target = resolve(hash);
+        if (touch(target)) {
+            // Déduplication : le même contenu est déjà stocké
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Écrit entre-temps par un upload concurrent du même contenu : rien à faire
+            log.debug("Contenu {} déjà présent", hash);
+            touch(target);
+        }
+    }
+
+    // Repousse la date de modification ; false si le contenu n'existe pas (ou vient d'être récupéré)
+    private static boolean touch(Path target) throws IOException {
+        try {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
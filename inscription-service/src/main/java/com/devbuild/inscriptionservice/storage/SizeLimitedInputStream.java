@@ -0,0 +1,45 @@
+package com.devbuild.inscriptionservice.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interrompt la lecture dès que la limite est dépassée,
+ * sans attendre la fin du corps de la requête.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private long count;
+
+    public SizeLimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            checkLimit(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        int read = super.read(buffer, off, len);
+        if (read > 0) {
+            checkLimit(read);
+        }
+        return read;
+    }
+
+    private void checkLimit(int read) {
+        count += read;
+        if (count > maxSize) {
+            throw new DocumentTooLargeException("Le document dépasse la taille maximale autorisée (" + maxSize + " octets)");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.devbuild.inscriptionservice.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredBlob {
+
+    private String contentHash; // SHA-256 en hexadécimal, sert aussi de clé de stockage
+    private long size;
+    private long crc32; // CRC-32 du contenu, pour les entrées ZIP STORED
+}
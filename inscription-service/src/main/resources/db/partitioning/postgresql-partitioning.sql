@@ -0,0 +1,104 @@
+-- Partitionnement déclaratif de inscriptions et documents par annee_academique (PostgreSQL 13+).
+--
+-- A exécuter une fois, service arrêté, sur une base créée par Hibernate (version du service qui
+-- mappe documents.annee_academique), puis démarrer avec inscription.partitioning.enabled=true :
+-- - une partition par année et par table (inscriptions_2025_2026, documents_2025_2026...) et une
+--   partition DEFAULT pour une année ajoutée à AnneeAcademique avant la création de sa partition
+--   (créée ensuite au démarrage du service) ;
+-- - clés primaires (id, annee_academique) : PostgreSQL impose la clé de partitionnement dans
+--   toute contrainte d'unicité, les id restant des UUID ;
+-- - documents.annee_academique recopie l'année de l'inscription ; la clé étrangère
+--   (inscription_id, annee_academique) garde chaque document dans la partition de son inscription ;
+-- - schéma "archive" : tables de même structure qui reçoivent les partitions des années clôturées
+--   (POST /inscriptions/annees/{annee}/cloture).
+-- Les index existants sont recréés sur les tables partitionnées (donc sur chaque partition).
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM inscriptions WHERE annee_academique IS NULL) THEN
+        RAISE EXCEPTION 'Inscriptions sans annee_academique : renseigner l''année avant le partitionnement';
+    END IF;
+END $$;
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS annee_academique VARCHAR(255);
+UPDATE documents d SET annee_academique = i.annee_academique
+FROM inscriptions i
+WHERE i.id = d.inscription_id AND d.annee_academique IS DISTINCT FROM i.annee_academique;
+
+ALTER TABLE documents RENAME TO documents_old;
+ALTER TABLE inscriptions RENAME TO inscriptions_old;
+
+-- Définitions des index secondaires, supprimés ici puis recréés après la copie des données
+CREATE TEMPORARY TABLE partitioning_indexes ON COMMIT DROP AS
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE schemaname = current_schema()
+  AND tablename IN ('inscriptions_old', 'documents_old')
+  AND indexname NOT IN (SELECT conname FROM pg_constraint);
+
+DO $$
+DECLARE
+    idx RECORD;
+BEGIN
+    FOR idx IN SELECT indexname FROM partitioning_indexes LOOP
+        EXECUTE format('DROP INDEX %I', idx.indexname);
+    END LOOP;
+END $$;
+
+CREATE TABLE inscriptions (LIKE inscriptions_old INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY LIST (annee_academique);
+ALTER TABLE inscriptions ADD PRIMARY KEY (id, annee_academique);
+
+CREATE TABLE documents (LIKE documents_old INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY LIST (annee_academique);
+ALTER TABLE documents ADD PRIMARY KEY (id, annee_academique);
+
+CREATE TABLE inscriptions_2023_2024 PARTITION OF inscriptions FOR VALUES IN ('ANNEE_2023_2024');
+CREATE TABLE inscriptions_2024_2025 PARTITION OF inscriptions FOR VALUES IN ('ANNEE_2024_2025');
+CREATE TABLE inscriptions_2025_2026 PARTITION OF inscriptions FOR VALUES IN ('ANNEE_2025_2026');
+CREATE TABLE inscriptions_default PARTITION OF inscriptions DEFAULT;
+
+CREATE TABLE documents_2023_2024 PARTITION OF documents FOR VALUES IN ('ANNEE_2023_2024');
+CREATE TABLE documents_2024_2025 PARTITION OF documents FOR VALUES IN ('ANNEE_2024_2025');
+CREATE TABLE documents_2025_2026 PARTITION OF documents FOR VALUES IN ('ANNEE_2025_2026');
+CREATE TABLE documents_default PARTITION OF documents DEFAULT;
+
+INSERT INTO inscriptions SELECT * FROM inscriptions_old;
+INSERT INTO documents SELECT * FROM documents_old;
+
+DO $$
+DECLARE
+    idx RECORD;
+BEGIN
+    FOR idx IN SELECT tablename, indexdef FROM partitioning_indexes LOOP
+        EXECUTE replace(idx.indexdef,
+                        ' ON ' || current_schema() || '.' || idx.tablename || ' ',
+                        ' ON ' || current_schema() || '.' || replace(idx.tablename, '_old', '') || ' ');
+    END LOOP;
+END $$;
+
+-- Nom attendu par la clôture d'une année (AnneeAcademiqueServiceImpl.DOCUMENTS_FK)
+ALTER TABLE documents ADD CONSTRAINT fk_documents_inscription
+    FOREIGN KEY (inscription_id, annee_academique) REFERENCES inscriptions (id, annee_academique)
+    ON UPDATE CASCADE ON DELETE CASCADE;
+
+DROP TABLE documents_old;
+DROP TABLE inscriptions_old;
+
+-- Tables d'archive : mêmes colonnes, index et contraintes ; les partitions y sont rattachées à la clôture
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE archive.inscriptions (LIKE inscriptions INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING INDEXES)
+    PARTITION BY LIST (annee_academique);
+CREATE TABLE archive.documents (LIKE documents INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING INDEXES)
+    PARTITION BY LIST (annee_academique);
+ALTER TABLE archive.documents ADD CONSTRAINT fk_documents_inscription
+    FOREIGN KEY (inscription_id, annee_academique) REFERENCES archive.inscriptions (id, annee_academique)
+    ON DELETE CASCADE;
+
+ANALYZE inscriptions;
+ANALYZE documents;
+
+COMMIT;
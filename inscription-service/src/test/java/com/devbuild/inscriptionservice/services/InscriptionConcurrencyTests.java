@@ -0,0 +1,138 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.ValidateInscriptionRequest;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Décisions concurrentes sur un même dossier : le compare-and-set (statut + version) laisse passer
+ * une seule décision, les autres reçoivent un 409 sans rien écrire.
+ */
+@SpringBootTest
+class InscriptionConcurrencyTests {
+
+    private static final int DECISIONS = 8;
+
+    @Autowired
+    private InscriptionService inscriptionService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        inscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentAdminDecisionsLetExactlyOneThrough() throws Exception {
+        Inscription inscription = approvedByDirecteur();
+        long versionBefore = inscription.getVersion();
+        long eventsBefore = outboxEventRepository.count();
+
+        // Moitié validations, moitié rejets, lancés ensemble
+        ExecutorService pool = Executors.newFixedThreadPool(DECISIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < DECISIONS; i++) {
+                boolean approved = i % 2 == 0;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        inscriptionService.validateByAdmin(inscription.getId(), ValidateInscriptionRequest.builder()
+                                .approved(approved)
+                                .commentaire("décision " + approved)
+                                .build());
+                        return HttpStatus.OK;
+                    } catch (ResponseStatusException e) {
+                        return HttpStatus.valueOf(e.getStatusCode().value());
+                    }
+                }));
+            }
+            start.countDown();
+            Map<HttpStatus, Integer> statuses = new TreeMap<>();
+            for (Future<HttpStatus> result : results) {
+                statuses.merge(result.get(), 1, Integer::sum);
+            }
+            assertThat(statuses).containsExactlyInAnyOrderEntriesOf(Map.of(
+                    HttpStatus.OK, 1,
+                    HttpStatus.CONFLICT, DECISIONS - 1));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Inscription after = inscriptionRepository.findById(inscription.getId()).orElseThrow();
+        assertThat(after.getStatus()).isIn(InscriptionStatus.VALIDEE, InscriptionStatus.REJETEE);
+        assertThat(after.getCommentaireAdmin())
+                .isEqualTo("décision " + (after.getStatus() == InscriptionStatus.VALIDEE));
+        assertThat(after.getVersion()).isEqualTo(versionBefore + 1);
+        // Un seul événement publié pour la seule transition effectuée
+        assertThat(outboxEventRepository.count()).isEqualTo(eventsBefore + 1);
+    }
+
+    @Test
+    void staleExpectedVersionIsRejected() {
+        Inscription inscription = approvedByDirecteur();
+
+        assertThatThrownBy(() -> inscriptionService.validateByAdmin(inscription.getId(),
+                ValidateInscriptionRequest.builder()
+                        .approved(true)
+                        .expectedVersion(inscription.getVersion() - 1)
+                        .build()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(inscriptionRepository.findById(inscription.getId()).orElseThrow().getStatus())
+                .isEqualTo(InscriptionStatus.APPROUVEE_DIRECTEUR);
+    }
+
+    @Test
+    void decisionOnAlreadyDecidedDossierIsRejected() {
+        Inscription inscription = approvedByDirecteur();
+        inscriptionService.validateByAdmin(inscription.getId(),
+                ValidateInscriptionRequest.builder().approved(true).build());
+
+        assertThatThrownBy(() -> inscriptionService.validateByDirecteur(inscription.getId(),
+                ValidateInscriptionRequest.builder().approved(false).build()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(inscriptionRepository.findById(inscription.getId()).orElseThrow().getStatus())
+                .isEqualTo(InscriptionStatus.VALIDEE);
+    }
+
+    private Inscription approvedByDirecteur() {
+        return inscriptionRepository.save(Inscription.builder()
+                .doctorantId("DOC001")
+                .directeurId("DIR001")
+                .type(InscriptionType.INSCRIPTION_INITIALE)
+                .status(InscriptionStatus.APPROUVEE_DIRECTEUR)
+                .anneeAcademique(AnneeAcademique.ANNEE_2025_2026)
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionFilter;
+import com.devbuild.inscriptionservice.dto.InscriptionPage;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Document;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les listes d'inscriptions s'exécutent avec un nombre de requêtes SQL
+ * constant, quelle que soit la taille de la page (pas de N+1 sur les documents).
+ */
+@SpringBootTest
+class InscriptionQueryCountTests {
+
+    private static final int INSCRIPTIONS = 30;
+
+    @Autowired
+    private InscriptionService inscriptionService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < INSCRIPTIONS; i++) {
+            Inscription inscription = inscriptionRepository.save(Inscription.builder()
+                    .doctorantId("DOC" + i)
+                    .directeurId("DIR001")
+                    .type(InscriptionType.INSCRIPTION_INITIALE)
+                    .status(InscriptionStatus.SOUMISE)
+                    .anneeAcademique(AnneeAcademique.ANNEE_2025_2026)
+                    .build());
+            for (int d = 0; d < 2; d++) {
+                documentRepository.save(Document.builder()
+                        .fileName("piece-" + d + ".pdf")
+                        .contentType("application/pdf")
+                        .fileSize(3)
+                        .data(new byte[]{1, 2, 3})
+                        .inscription(inscription)
+                        .build());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        documentRepository.deleteAllInBatch();
+        inscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void pageQueryCountDoesNotDependOnPageSize() {
+        InscriptionFilter filter = InscriptionFilter.builder().status(InscriptionStatus.SOUMISE).build();
+
+        long smallPage = countStatements(() -> inscriptionService.getInscriptionsPage(filter, null, 2));
+        long largePage = countStatements(() -> {
+            InscriptionPage page = inscriptionService.getInscriptionsPage(filter, null, 25);
+            assertThat(page.getItems()).hasSize(25);
+            assertThat(page.getItems()).allSatisfy(dto -> assertThat(dto.getDocuments()).hasSize(2));
+        });
+
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void listByStatusUsesConstantNumberOfStatements() {
+        long statements = countStatements(() -> {
+            List<InscriptionDTO> all = inscriptionService.getInscriptionsByStatus(InscriptionStatus.SOUMISE);
+            assertThat(all).hasSize(INSCRIPTIONS);
+        });
+
+        // Une requête pour les inscriptions, une pour les métadonnées des documents
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,126 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.InscriptionStatisticDTO;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.model.InscriptionStatisticId;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionStatisticRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Réconciliation des compteurs pendant des créations concurrentes : une création validée entre le
+ * verrouillage des compteurs et le GROUP BY ne doit pas être comptée deux fois.
+ */
+@SpringBootTest
+class InscriptionStatisticsReconcileTests {
+
+    // Créations lancées pendant la réconciliation, sur un groupe existant
+    private static final int CREATIONS = 4;
+
+    @Autowired
+    private InscriptionStatisticsService statisticsService;
+
+    @Autowired
+    private InscriptionStatisticRepository statisticRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoSpyBean
+    private InscriptionRepository inscriptionRepository;
+
+    private final AtomicInteger doctorants = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        inscriptionRepository.deleteAllInBatch();
+        statisticRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void creationsDuringReconcileAreCountedOnce() throws Exception {
+        create("LAB-A");
+        statisticsService.reconcile();
+
+        // Les créations démarrent une fois les compteurs verrouillés, juste avant le GROUP BY
+        ExecutorService pool = Executors.newFixedThreadPool(CREATIONS + 1);
+        List<Future<?>> creations = new ArrayList<>();
+        AtomicBoolean started = new AtomicBoolean();
+        // Dépôt JPA (proxy d'interface) : l'espion délègue au dépôt réel via sa réponse par défaut
+        Answer<?> real = mockingDetails(inscriptionRepository).getMockCreationSettings().getDefaultAnswer();
+        try {
+            doAnswer(invocation -> {
+                if (started.getAndSet(true)) {
+                    return real.answer(invocation);
+                }
+                for (int i = 0; i < CREATIONS; i++) {
+                    creations.add(pool.submit(() -> create("LAB-A")));
+                }
+                // Groupe nouveau : aucune ligne à verrouiller
+                creations.add(pool.submit(() -> create("LAB-B")));
+                for (Future<?> creation : creations) {
+                    try {
+                        creation.get(300, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // Création en attente du verrou des compteurs
+                    }
+                }
+                return real.answer(invocation);
+            }).when(inscriptionRepository).countByStatisticGroup();
+
+            statisticsService.reconcile();
+            for (Future<?> creation : creations) {
+                creation.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Long> counts = statisticsService.getStatistics(null, null, null).getGroups().stream()
+                .collect(Collectors.toMap(InscriptionStatisticDTO::getLaboratoire, InscriptionStatisticDTO::getCount));
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "LAB-A", (long) CREATIONS + 1,
+                "LAB-B", 1L));
+        // Plus aucune dérive à corriger
+        assertThat(statisticsService.reconcile()).isZero();
+    }
+
+    private void create(String laboratoire) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Inscription inscription = inscriptionRepository.save(Inscription.builder()
+                    .doctorantId("DOC" + doctorants.incrementAndGet())
+                    .directeurId("DIR001")
+                    .type(InscriptionType.INSCRIPTION_INITIALE)
+                    .status(InscriptionStatus.SOUMISE)
+                    .anneeAcademique(AnneeAcademique.ANNEE_2025_2026)
+                    .laboratoire(laboratoire)
+                    .build());
+            statisticsService.increment(InscriptionStatisticId.of(inscription));
+        });
+    }
+}
@@ -0,0 +1,269 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.PartitioningProperties;
+import com.devbuild.inscriptionservice.dto.AnneeClotureeDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionDTO;
+import com.devbuild.inscriptionservice.dto.InscriptionFilter;
+import com.devbuild.inscriptionservice.dto.InscriptionPage;
+import com.devbuild.inscriptionservice.dto.ValidateInscriptionRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueClaimRequest;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Document;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.model.InscriptionStatistic;
+import com.devbuild.inscriptionservice.repository.DocumentRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.InscriptionStatisticRepository;
+import com.devbuild.inscriptionservice.storage.DocumentStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Script db/partitioning/postgresql-partitioning.sql et clôture d'une année sur un vrai PostgreSQL :
+ * base créée par Hibernate et alimentée, conversion en tables partitionnées, fonctionnement du
+ * service sur ces tables, puis clôture de 2023-2024 vers le schéma "archive".
+ * PostgreSQL via Testcontainers, ou un serveur existant (base dédiée, recréée par le test) :
+ * -Dpostgres.test.url=jdbc:postgresql://localhost:5432/inscriptions_test -Dpostgres.test.username=...
+ * Ignoré sans Docker ni serveur configuré.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@EnabledIf("postgresAvailable")
+class PostgresPartitioningTests {
+
+    private static final String EXTERNAL_URL = System.getProperty("postgres.test.url");
+    private static PostgreSQLContainer<?> container;
+
+    @Autowired
+    private InscriptionService inscriptionService;
+
+    @Autowired
+    private AnneeAcademiqueServiceImpl anneeAcademiqueService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private WorkQueueService workQueueService;
+
+    @Autowired
+    private InscriptionStatisticsService statisticsService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private InscriptionStatisticRepository statisticRepository;
+
+    @Autowired
+    private PartitioningProperties partitioningProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DocumentBlobCollector documentBlobCollector;
+
+    @Autowired
+    private DocumentStorage documentStorage;
+
+    static boolean postgresAvailable() {
+        return EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("postgres.test.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("postgres.test.password", ""));
+            return;
+        }
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    void partitionsTablesAndClosesAYear() throws Exception {
+        // 1. Base créée par Hibernate (tables simples), trois années, documents sans année
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS archive CASCADE");
+        List<Inscription> seeded = new ArrayList<>();
+        for (AnneeAcademique annee : AnneeAcademique.values()) {
+            for (int i = 0; i < 4; i++) {
+                Inscription inscription = inscriptionRepository.save(Inscription.builder()
+                        .doctorantId("DOC" + i)
+                        .directeurId("DIR001")
+                        .type(InscriptionType.INSCRIPTION_INITIALE)
+                        .status(InscriptionStatus.SOUMISE)
+                        .anneeAcademique(annee)
+                        .build());
+                documentRepository.save(Document.builder()
+                        .fileName("piece.pdf")
+                        .contentType("application/pdf")
+                        .fileSize(3)
+                        .data(new byte[]{1, 2, 3})
+                        .inscription(inscription)
+                        .build());
+                seeded.add(inscription);
+            }
+        }
+        statisticsService.reconcile();
+        jdbcTemplate.update("UPDATE documents SET annee_academique = NULL");
+
+        // 2. Conversion
+        String script = new ClassPathResource("db/partitioning/postgresql-partitioning.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        jdbcTemplate.execute(script);
+
+        assertThat(relkind("inscriptions")).isEqualTo("p");
+        assertThat(relkind("documents")).isEqualTo("p");
+        assertThat(count("inscriptions_2023_2024")).isEqualTo(4);
+        assertThat(count("documents_2025_2026")).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM documents WHERE annee_academique IS NULL", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inscriptions' AND indexname = 'idx_inscriptions_keyset'",
+                Long.class)).isEqualTo(1);
+
+        // 3. Le service sur les tables partitionnées
+        partitioningProperties.setEnabled(true);
+        anneeAcademiqueService.createPartitions();
+
+        Inscription current = seeded.get(seeded.size() - 1);
+        String documentId = documentService.store(current.getId(), "ajout.pdf", "application/pdf",
+                new ByteArrayInputStream(new byte[]{4, 5, 6})).getId();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents_2025_2026 WHERE id = ?",
+                Long.class, documentId)).isEqualTo(1);
+
+        InscriptionDTO validated = inscriptionService.validateByDirecteur(current.getId(),
+                ValidateInscriptionRequest.builder().approved(true).build());
+        assertThat(validated.getStatus()).isEqualTo(InscriptionStatus.APPROUVEE_DIRECTEUR);
+
+        assertThat(workQueueService.claim(WorkQueueClaimRequest.builder()
+                .reviewerId("R1").status(InscriptionStatus.SOUMISE).count(3).build()).getData()).hasSize(3);
+
+        InscriptionPage page = inscriptionService.getInscriptionsPage(InscriptionFilter.builder().build(), null, 50);
+        assertThat(page.getItems()).extracting(InscriptionDTO::getAnneeAcademique)
+                .containsOnly(AnneeAcademique.ANNEE_2025_2026, AnneeAcademique.ANNEE_2024_2025)
+                .hasSize(8);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT * FROM inscriptions " +
+                "WHERE annee_academique IN ('ANNEE_2025_2026', 'ANNEE_2024_2025')", String.class));
+        assertThat(plan).contains("inscriptions_2025_2026").doesNotContain("inscriptions_2023_2024");
+
+        jdbcTemplate.execute("ANALYZE inscriptions_2023_2024");
+        jdbcTemplate.execute("ANALYZE inscriptions_2024_2025");
+        jdbcTemplate.execute("ANALYZE inscriptions_2025_2026");
+        assertThat(inscriptionRepository.estimateRowCount()).isEqualTo(12);
+        // Première page sans filtre : estimation des partitions actives, pas de COUNT (une ligne de plus non comptée)
+        Inscription unanalyzed = inscriptionRepository.save(Inscription.builder()
+                .doctorantId("DOC9").directeurId("DIR001").type(InscriptionType.INSCRIPTION_INITIALE)
+                .status(InscriptionStatus.SOUMISE).anneeAcademique(AnneeAcademique.ANNEE_2025_2026).build());
+        assertThat(inscriptionService.getInscriptionsPage(InscriptionFilter.builder().build(), null, 50)
+                .getApproximateTotal()).isEqualTo(8);
+        inscriptionRepository.delete(unanalyzed);
+
+        // 4. Clôture de 2023-2024 (dont un document dans le DocumentStorage)
+        String archivedHash = documentRepository.findById(documentService.store(seeded.get(0).getId(), "ancien.pdf",
+                "application/pdf", new ByteArrayInputStream(new byte[]{7, 8, 9})).getId()).orElseThrow().getContentHash();
+        AnneeClotureeDTO cloture = anneeAcademiqueService.closeYear(AnneeAcademique.ANNEE_2023_2024).getData();
+        assertThat(cloture.getInscriptions()).isEqualTo(4);
+        assertThat(cloture.getDocuments()).isEqualTo(5);
+        assertThat(cloture.getArchiveeLe()).isNotNull();
+
+        assertThat(parentOf("archive.inscriptions_2023_2024")).isEqualTo("archive.inscriptions");
+        assertThat(parentOf("archive.documents_2023_2024")).isEqualTo("archive.documents");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inscriptions WHERE annee_academique = 'ANNEE_2023_2024'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archive.documents", Long.class)).isEqualTo(5);
+        assertThat(inscriptionService.getInscriptionsPage(
+                InscriptionFilter.builder().includeArchives(true).build(), null, 50).getItems()).hasSize(8);
+
+        List<String> archived = new ArrayList<>();
+        String cursor = null;
+        do {
+            InscriptionPage archivePage = inscriptionService.getArchivedInscriptionsPage(
+                    AnneeAcademique.ANNEE_2023_2024, cursor, 3);
+            archivePage.getItems().forEach(dto -> archived.add(dto.getId()));
+            cursor = archivePage.getNextCursor();
+        } while (cursor != null);
+        assertThat(new HashSet<>(archived)).hasSize(4);
+
+        // Le ramasse-miettes voit les références du schéma d'archive
+        Files.setLastModifiedTime(documentStorage.resolve(archivedHash), FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        documentBlobCollector.collect();
+        assertThat(documentStorage.exists(archivedHash)).isTrue();
+
+        assertThatThrownBy(() -> anneeAcademiqueService.closeYear(AnneeAcademique.ANNEE_2023_2024))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> anneeAcademiqueService.closeYear(AnneeAcademique.ANNEE_2024_2025))
+                .isInstanceOf(ResponseStatusException.class);
+
+        // Compteurs de l'année clôturée conservés ; partitions non recréées au démarrage
+        statisticsService.reconcile();
+        assertThat(statisticRepository.findAll().stream()
+                .filter(row -> row.getId().getAnneeAcademique().equals(AnneeAcademique.ANNEE_2023_2024.name()))
+                .mapToLong(InscriptionStatistic::getTotal).sum()).isEqualTo(4);
+        anneeAcademiqueService.createPartitions();
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('inscriptions_2023_2024') IS NULL", Boolean.class))
+                .isTrue();
+
+        // 5. Suppression en cascade sur les tables partitionnées
+        inscriptionService.deleteInscription(seeded.get(4).getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents WHERE inscription_id = ?",
+                Long.class, seeded.get(4).getId())).isZero();
+
+        partitioningProperties.setEnabled(false);
+        jdbcTemplate.execute("DROP SCHEMA archive CASCADE");
+    }
+
+    private String relkind(String table) {
+        return jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                String.class, table);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private String parentOf(String table) {
+        return jdbcTemplate.queryForObject("SELECT inhparent::regclass::text FROM pg_inherits " +
+                "WHERE inhrelid = to_regclass(?)", String.class, table);
+    }
+}
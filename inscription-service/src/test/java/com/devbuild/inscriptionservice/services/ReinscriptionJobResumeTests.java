@@ -0,0 +1,182 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobDTO;
+import com.devbuild.inscriptionservice.dto.ReinscriptionJobRequest;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.enums.ReinscriptionJobStatus;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.OutboxEventRepository;
+import com.devbuild.inscriptionservice.repository.ReinscriptionJobPartitionRepository;
+import com.devbuild.inscriptionservice.repository.ReinscriptionJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.when;
+
+/**
+ * Job de réinscription interrompu au milieu d'une tranche puis repris : le lot en échec est annulé
+ * entièrement, la reprise repart du dernier point de reprise, et chaque doctorant éligible reçoit
+ * exactement une réinscription (et un seul événement).
+ */
+@SpringBootTest(properties = "inscription.reinscription-job.chunk-size=50")
+class ReinscriptionJobResumeTests {
+
+    private static final int DOCTORANTS = 1000;
+    // Doctorants ayant déjà un dossier pour l'année cible : ignorés
+    private static final int ALREADY_ENROLLED = 5;
+    // Second dossier validé pour un même doctorant : ignoré aussi
+    private static final int DUPLICATES = 200;
+
+    @Autowired
+    private ReinscriptionJobService jobService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReinscriptionJobRepository jobRepository;
+
+    @Autowired
+    private ReinscriptionJobPartitionRepository partitionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ActiveCampaignIndex activeCampaignIndex;
+
+    @MockitoSpyBean
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        when(activeCampaignIndex.isOpen(any(), any())).thenReturn(true);
+        List<Inscription> inscriptions = new ArrayList<>();
+        for (int i = 0; i < DOCTORANTS; i++) {
+            inscriptions.add(inscription(doctorant(i), InscriptionStatus.VALIDEE, AnneeAcademique.ANNEE_2024_2025));
+        }
+        for (int i = 0; i < DUPLICATES; i++) {
+            inscriptions.add(inscription(doctorant(i * 5), InscriptionStatus.VALIDEE, AnneeAcademique.ANNEE_2024_2025));
+        }
+        for (int i = 0; i < 100; i++) {
+            inscriptions.add(inscription("SOUMIS" + i, InscriptionStatus.SOUMISE, AnneeAcademique.ANNEE_2024_2025));
+        }
+        for (int i = 0; i < ALREADY_ENROLLED; i++) {
+            inscriptions.add(inscription(doctorant(i * 7 + 1), InscriptionStatus.SOUMISE, AnneeAcademique.ANNEE_2025_2026));
+        }
+        inscriptionRepository.saveAll(inscriptions);
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        partitionRepository.deleteAllInBatch();
+        jobRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        inscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void resumeAfterCrashCreatesEachReinscriptionOnce() throws Exception {
+        // Le 8e lot échoue à l'écriture de ses événements : sa transaction est annulée
+        AtomicInteger appends = new AtomicInteger();
+        // append est MANDATORY : le stub est posé à travers le proxy transactionnel
+        transactionTemplate.executeWithoutResult(status -> doAnswer(invocation -> {
+            if (appends.incrementAndGet() == 8) {
+                throw new IllegalStateException("arrêt simulé");
+            }
+            return invocation.callRealMethod();
+        }).when(outboxService).append(anyList()));
+
+        String jobId = jobService.start(ReinscriptionJobRequest.builder()
+                .sourceAnnee(AnneeAcademique.ANNEE_2024_2025)
+                .build()).getData().getId();
+        ReinscriptionJobDTO failed = awaitEnd(jobId);
+        assertThat(failed.getStatus()).isEqualTo(ReinscriptionJobStatus.ECHOUEE);
+        assertThat(failed.getPartitionsTerminees()).isLessThan(failed.getPartitions());
+        assertThat(failed.getCreated()).isLessThan(DOCTORANTS - ALREADY_ENROLLED);
+        // Seuls les lots validés ont laissé des lignes
+        assertThat(countReinscriptions()).isEqualTo(failed.getCreated());
+        assertThat(outboxEventRepository.count()).isEqualTo(failed.getCreated());
+
+        transactionTemplate.executeWithoutResult(status -> doCallRealMethod().when(outboxService).append(anyList()));
+        jobService.resume(jobId);
+        ReinscriptionJobDTO done = awaitEnd(jobId);
+
+        assertThat(done.getStatus()).isEqualTo(ReinscriptionJobStatus.TERMINEE);
+        assertThat(done.getPartitionsTerminees()).isEqualTo(done.getPartitions());
+        assertThat(done.getProcessed()).isEqualTo(DOCTORANTS + DUPLICATES);
+        assertThat(done.getCreated()).isEqualTo(DOCTORANTS - ALREADY_ENROLLED);
+        assertThat(done.getSkipped()).isEqualTo(DUPLICATES + ALREADY_ENROLLED);
+
+        List<Inscription> target = inscriptionRepository.findAll().stream()
+                .filter(inscription -> inscription.getAnneeAcademique() == AnneeAcademique.ANNEE_2025_2026)
+                .toList();
+        assertThat(target).hasSize(DOCTORANTS);
+        assertThat(target).extracting(Inscription::getDoctorantId).doesNotHaveDuplicates();
+        assertThat(countReinscriptions()).isEqualTo(DOCTORANTS - ALREADY_ENROLLED);
+        assertThat(outboxEventRepository.count()).isEqualTo(DOCTORANTS - ALREADY_ENROLLED);
+
+        // Relancer un job terminé ne crée rien de plus
+        ReinscriptionJobDTO rerun = awaitEnd(jobService.start(ReinscriptionJobRequest.builder()
+                .sourceAnnee(AnneeAcademique.ANNEE_2024_2025)
+                .build()).getData().getId());
+        assertThat(rerun.getStatus()).isEqualTo(ReinscriptionJobStatus.TERMINEE);
+        assertThat(rerun.getCreated()).isZero();
+        assertThat(countReinscriptions()).isEqualTo(DOCTORANTS - ALREADY_ENROLLED);
+    }
+
+    private ReinscriptionJobDTO awaitEnd(String jobId) throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            ReinscriptionJobDTO job = jobService.getJob(jobId).getData();
+            if (job.getStatus() != ReinscriptionJobStatus.EN_COURS) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Job " + jobId + " toujours en cours après 30 s");
+    }
+
+    private long countReinscriptions() {
+        return inscriptionRepository.findAll().stream()
+                .filter(inscription -> inscription.getAnneeAcademique() == AnneeAcademique.ANNEE_2025_2026
+                        && inscription.getType() == InscriptionType.REINSCRIPTION)
+                .count();
+    }
+
+    private static String doctorant(int index) {
+        return "DOC" + String.format("%04d", index);
+    }
+
+    private static Inscription inscription(String doctorantId, InscriptionStatus status, AnneeAcademique annee) {
+        return Inscription.builder()
+                .doctorantId(doctorantId)
+                .directeurId("DIR001")
+                .type(InscriptionType.INSCRIPTION_INITIALE)
+                .status(status)
+                .anneeAcademique(annee)
+                .laboratoire("LAB")
+                .build();
+    }
+}
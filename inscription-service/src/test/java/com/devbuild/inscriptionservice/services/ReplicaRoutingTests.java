@@ -0,0 +1,140 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.config.ReplicaProperties;
+import com.devbuild.inscriptionservice.datasource.ReadYourWrites;
+import com.devbuild.inscriptionservice.datasource.ReplicaRoutingDataSource;
+import com.devbuild.inscriptionservice.dto.UpdateInscriptionRequest;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routage des transactions en lecture seule vers un réplica (seconde base H2 en mémoire, copie
+ * figée de la principale) : un réplica sain sert les lectures, les lectures de ses propres
+ * écritures et les réplicas en retard repassent par la base principale.
+ * Le réplica contient "v1", la base principale "v2" : la valeur lue indique la base utilisée.
+ */
+@SpringBootTest(properties = {
+        "inscription.replicas.enabled=true",
+        // Pas de pg_is_in_recovery() sous H2 : retard nul sauf si le test en impose un
+        "inscription.replicas.lag-query=",
+        "inscription.replicas.instances[0].url=" + ReplicaRoutingTests.REPLICA_URL,
+        "inscription.replicas.instances[0].username=sa",
+        "inscription.replicas.instances[0].password="
+})
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:inscriptions-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private InscriptionService inscriptionService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    private JdbcTemplate primary;
+    private Inscription inscription;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = new JdbcTemplate(primaryDataSource);
+        inscription = inscriptionRepository.save(Inscription.builder()
+                .doctorantId("DOC001")
+                .directeurId("DIR001")
+                .type(InscriptionType.INSCRIPTION_INITIALE)
+                .status(InscriptionStatus.SOUMISE)
+                .sujetThese("v1")
+                .anneeAcademique(AnneeAcademique.ANNEE_2025_2026)
+                .build());
+
+        // Copie de la base principale vers le réplica, puis modification de la principale seule
+        Path script = Files.createTempFile("replica-", ".sql");
+        SingleConnectionDataSource replicaDataSource = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+        try {
+            primary.execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+        } finally {
+            replicaDataSource.destroy();
+            Files.deleteIfExists(script);
+        }
+        primary.update("UPDATE inscriptions SET sujet_these = 'v2' WHERE id = ?", inscription.getId());
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaProperties.setLagQuery("");
+        replicaRoutingDataSource.checkReplicas();
+        inscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void readOnlyTransactionsUseHealthyReplica() {
+        assertThat(sujetRead()).isEqualTo("v1");
+    }
+
+    @Test
+    void recentWriteIsReadFromPrimary() {
+        readYourWrites.recordWrite(inscription.getId());
+
+        assertThat(sujetRead()).isEqualTo("v2");
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        inscriptionService.updateInscription(inscription.getId(),
+                UpdateInscriptionRequest.builder().specialite("Informatique").build());
+
+        assertThat(primary.queryForObject("SELECT specialite FROM inscriptions WHERE id = ?",
+                String.class, inscription.getId())).isEqualTo("Informatique");
+        // La mise à jour épingle les lectures suivantes de ce dossier sur la base principale
+        assertThat(inscriptionService.getInscriptionById(inscription.getId()).getSpecialite())
+                .isEqualTo("Informatique");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        replicaProperties.setLagQuery("SELECT " + (replicaProperties.getMaxLag().toSeconds() + 5));
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(sujetRead()).isEqualTo("v2");
+
+        replicaProperties.setLagQuery("");
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(sujetRead()).isEqualTo("v1");
+    }
+
+    private String sujetRead() {
+        return inscriptionService.getInscriptionById(inscription.getId()).getSujetThese();
+    }
+}
@@ -0,0 +1,214 @@
+package com.devbuild.inscriptionservice.services;
+
+import com.devbuild.inscriptionservice.dto.BulkValidationRequest;
+import com.devbuild.inscriptionservice.dto.BulkValidationResponse;
+import com.devbuild.inscriptionservice.dto.InscriptionDTO;
+import com.devbuild.inscriptionservice.dto.SkippedInscription;
+import com.devbuild.inscriptionservice.dto.ValidateInscriptionRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueClaimRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseRequest;
+import com.devbuild.inscriptionservice.dto.WorkQueueLeaseResponse;
+import com.devbuild.inscriptionservice.enums.AnneeAcademique;
+import com.devbuild.inscriptionservice.enums.InscriptionStatus;
+import com.devbuild.inscriptionservice.enums.InscriptionType;
+import com.devbuild.inscriptionservice.model.Inscription;
+import com.devbuild.inscriptionservice.repository.InscriptionRepository;
+import com.devbuild.inscriptionservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * File de travail des dossiers en attente : plusieurs relecteurs qui réservent en parallèle
+ * vident la file sans qu'un dossier soit attribué deux fois (FOR UPDATE SKIP LOCKED + bail).
+ */
+@SpringBootTest
+class WorkQueueConcurrencyTests {
+
+    private static final int DOSSIERS = 200;
+    private static final int REVIEWERS = 8;
+    private static final int BATCH = 10;
+
+    @Autowired
+    private WorkQueueService workQueueService;
+
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+
+    @Autowired
+    private InscriptionService inscriptionService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Inscription> inscriptions = new ArrayList<>();
+        for (int i = 0; i < DOSSIERS; i++) {
+            inscriptions.add(Inscription.builder()
+                    .doctorantId("DOC" + i)
+                    .directeurId("DIR001")
+                    .type(InscriptionType.INSCRIPTION_INITIALE)
+                    .status(InscriptionStatus.SOUMISE)
+                    .anneeAcademique(AnneeAcademique.ANNEE_2025_2026)
+                    .build());
+        }
+        inscriptionRepository.saveAll(inscriptions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        inscriptionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void reviewersDrainQueueExactlyOnce() throws Exception {
+        Map<String, String> owners = new ConcurrentHashMap<>();
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService pool = Executors.newFixedThreadPool(REVIEWERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> claimed = new ArrayList<>();
+        try {
+            for (int r = 0; r < REVIEWERS; r++) {
+                String reviewerId = "REV" + r;
+                claimed.add(pool.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    List<InscriptionDTO> batch;
+                    while (!(batch = claim(reviewerId, BATCH)).isEmpty()) {
+                        for (InscriptionDTO dossier : batch) {
+                            if (owners.putIfAbsent(dossier.getId(), reviewerId) != null) {
+                                duplicates.add(dossier.getId());
+                            }
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> count : claimed) {
+                total += count.get();
+            }
+            assertThat(total).isEqualTo(DOSSIERS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(duplicates).isEmpty();
+        assertThat(owners).hasSize(DOSSIERS);
+        // Le bail enregistré en base est bien celui du relecteur qui a reçu le dossier
+        for (Inscription inscription : inscriptionRepository.findAll()) {
+            assertThat(inscription.getLeaseOwner()).isEqualTo(owners.get(inscription.getId()));
+        }
+    }
+
+    @Test
+    void releasedAndExpiredLeasesReturnToQueue() {
+        List<InscriptionDTO> first = new ArrayList<>();
+        List<InscriptionDTO> batch;
+        while (!(batch = claim("REV0", BATCH)).isEmpty()) {
+            first.addAll(batch);
+        }
+        assertThat(first).hasSize(DOSSIERS);
+        assertThat(claim("REV1", BATCH)).isEmpty();
+
+        // Libération explicite : seuls les dossiers du relecteur sont rendus
+        String released = first.get(0).getId();
+        WorkQueueLeaseResponse release = workQueueService.release(WorkQueueLeaseRequest.builder()
+                .reviewerId("REV0")
+                .ids(List.of(released, "inconnu"))
+                .build());
+        assertThat(release.getIds()).containsExactly(released);
+        assertThat(claim("REV1", BATCH)).extracting(InscriptionDTO::getId).containsExactly(released);
+
+        // Bail expiré : le dossier redevient disponible pour un autre relecteur
+        String expired = first.get(1).getId();
+        jdbcTemplate.update("UPDATE inscriptions SET lease_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), expired);
+        assertThat(claim("REV2", BATCH)).extracting(InscriptionDTO::getId).containsExactly(expired);
+
+        // Le renouvellement ne concerne plus les dossiers perdus
+        WorkQueueLeaseResponse renew = workQueueService.renew(WorkQueueLeaseRequest.builder().reviewerId("REV0").build());
+        assertThat(renew.getIds()).hasSize(DOSSIERS - 2).doesNotContain(released, expired);
+    }
+
+    @Test
+    void leasedDossierIsDecidedByItsHolderOnlyAndReturnsToQueue() {
+        List<String> claimed = claim("DIR-A", 2).stream().map(InscriptionDTO::getId).toList();
+        String single = claimed.get(0);
+        String bulk = claimed.get(1);
+
+        // Un autre relecteur (ou un appel sans relecteur) ne peut pas décider pendant le bail
+        assertThatThrownBy(() -> inscriptionService.validateByDirecteur(single, ValidateInscriptionRequest.builder()
+                .approved(true)
+                .reviewerId("DIR-B")
+                .build()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        BulkValidationResponse refused = inscriptionService.bulkValidateByDirecteur(BulkValidationRequest.builder()
+                .ids(claimed)
+                .approved(true)
+                .build());
+        assertThat(refused.getUpdated()).isEmpty();
+        assertThat(refused.getSkipped()).extracting(SkippedInscription::getReason)
+                .allMatch(reason -> reason.startsWith("Réservée par DIR-A"));
+
+        // Décisions du détenteur : le bail est libéré avec la transition
+        inscriptionService.validateByDirecteur(single, ValidateInscriptionRequest.builder()
+                .approved(true)
+                .reviewerId("DIR-A")
+                .build());
+        assertThat(inscriptionService.bulkValidateByDirecteur(BulkValidationRequest.builder()
+                .ids(List.of(bulk))
+                .approved(true)
+                .reviewerId("DIR-A")
+                .build()).getUpdated()).containsExactly(bulk);
+        for (String id : claimed) {
+            Inscription decided = inscriptionRepository.findById(id).orElseThrow();
+            assertThat(decided.getStatus()).isEqualTo(InscriptionStatus.APPROUVEE_DIRECTEUR);
+            assertThat(decided.getLeaseOwner()).isNull();
+            assertThat(decided.getLeaseExpiresAt()).isNull();
+        }
+
+        // Réservable tout de suite par l'administration dans son nouveau statut
+        assertThat(workQueueService.claim(WorkQueueClaimRequest.builder()
+                .reviewerId("ADM-A")
+                .status(InscriptionStatus.APPROUVEE_DIRECTEUR)
+                .count(BATCH)
+                .build()).getData()).extracting(InscriptionDTO::getId).containsExactlyInAnyOrderElementsOf(claimed);
+    }
+
+    private List<InscriptionDTO> claim(String reviewerId, int count) {
+        return workQueueService.claim(WorkQueueClaimRequest.builder()
+                .reviewerId(reviewerId)
+                .status(InscriptionStatus.SOUMISE)
+                .count(count)
+                .build()).getData();
+    }
+}